@@ -0,0 +1,99 @@
+package homework1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks of single GeoPoint and GeoSegment operations, each
+ * applied in turn to the points and segments of ExampleGeoSegments.
+ * <p>
+ * Run with the GC profiler, which reports the bytes each operation
+ * allocates:
+ * <pre>
+ *   java -jar build/libs/oop_hw1-jmh.jar -prof gc GeoPointBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GeoPointBenchmark {
+
+	private final GeoPoint[] points = ExampleGeoSegments.points;
+	private final GeoSegment[] segments = ExampleGeoSegments.segments;
+	private final HeadingStrategy approximate = HeadingStrategy.approximate(0.05);
+
+	// the point or segment the next operation starts at
+	private int next = 0;
+
+	private GeoPoint nextPoint() {
+		this.next = this.next + 1 < this.points.length ? this.next + 1 : 0;
+		return this.points[this.next];
+	}
+
+	private GeoSegment nextSegment() {
+		this.next = this.next + 1 < this.segments.length ? this.next + 1 : 0;
+		return this.segments[this.next];
+	}
+
+	@Benchmark
+	public double distanceTo() {
+		return nextPoint().distanceTo(this.points[0]);
+	}
+
+	@Benchmark
+	public double headingTo() {
+		return nextPoint().headingTo(this.points[0]);
+	}
+
+	@Benchmark
+	public double headingToApproximate() {
+		return nextPoint().headingTo(this.points[0], this.approximate);
+	}
+
+	@Benchmark
+	public GeoPoint newGeoPoint() {
+		GeoPoint gp = nextPoint();
+		return new GeoPoint(gp.getLatitude(), gp.getLongitude());
+	}
+
+	@Benchmark
+	public GeoPoint geoPointOf() {
+		GeoPoint gp = nextPoint();
+		return GeoPoint.of(gp.getLatitude(), gp.getLongitude());
+	}
+
+	@Benchmark
+	public GeoSegment newGeoSegment() {
+		GeoSegment gs = nextSegment();
+		return new GeoSegment(gs.getName(), gs.getP1(), gs.getP2());
+	}
+
+	@Benchmark
+	public double newGeoSegmentHeading() {
+		GeoSegment gs = nextSegment();
+		return new GeoSegment(gs.getName(), gs.getP1(), gs.getP2()).getHeading();
+	}
+
+	@Benchmark
+	public double newGeoSegmentHeadingApproximate() {
+		GeoSegment gs = nextSegment();
+		return new GeoSegment(gs.getName(), gs.getP1(), gs.getP2()).getHeading(this.approximate);
+	}
+
+	@Benchmark
+	public GeoSegment reverse() {
+		return nextSegment().reverse();
+	}
+}
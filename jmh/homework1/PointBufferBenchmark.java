@@ -0,0 +1,97 @@
+package homework1;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Micro-benchmarks of bulk operations on many points: the distances along a
+ * trace kept in a PointBuffer, and numbering distinct points.
+ * <p>
+ * The forked JVM is started with the jdk.incubator.vector module, so
+ * legDistances runs on the vector kernels; scalarLegDistances runs the
+ * scalar loops they fall back to, for comparison.
+ * <p>
+ * Run with the GC profiler, which reports the bytes each pass allocates:
+ * <pre>
+ *   java -jar build/libs/oop_hw1-jmh.jar -prof gc PointBufferBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+@State(Scope.Thread)
+public class PointBufferBenchmark {
+
+	/**
+	 * The number of points of the trace, and of points numbered.
+	 */
+	@Param({ "1000", "100000" })
+	public int size;
+
+	private PointBuffer trace;
+	private double[] legs;
+	private GeoPoint[] grid;
+
+	@Setup
+	public void setUp() {
+		GeoPoint[] points = ExampleGeoSegments.points;
+		this.trace = new PointBuffer(this.size);
+		for (int i = 0; i < this.size; i++) {
+			this.trace.add(points[i % points.length]);
+		}
+		this.legs = new double[this.size - 1];
+
+		// distinct points, about a meter apart
+		int side = (int) Math.ceil(Math.sqrt(this.size));
+		this.grid = new GeoPoint[this.size];
+		for (int i = 0; i < this.size; i++) {
+			this.grid[i] = new GeoPoint(32780000 + i / side, 35010000 + i % side);
+		}
+	}
+
+	@Benchmark
+	public void legDistances(Blackhole blackhole) {
+		this.trace.legDistances(this.legs);
+		blackhole.consume(this.legs);
+	}
+
+	@Benchmark
+	public void scalarLegDistances(Blackhole blackhole) {
+		GeoKernels.SCALAR.legDistances(this.trace.latitudes(), this.trace.longitudes(), this.size, this.legs);
+		blackhole.consume(this.legs);
+	}
+
+	@Benchmark
+	public int hashMapNumbering() {
+		Map<GeoPoint, Integer> ids = new HashMap<GeoPoint, Integer>();
+		for (GeoPoint gp : this.grid) {
+			ids.putIfAbsent(gp, ids.size());
+		}
+		return ids.size();
+	}
+
+	@Benchmark
+	public int pointIntMapNumbering() {
+		PointIntMap ids = new PointIntMap();
+		for (GeoPoint gp : this.grid) {
+			ids.getOrAssign(gp);
+		}
+		return ids.size();
+	}
+}
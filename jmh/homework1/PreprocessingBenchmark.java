@@ -0,0 +1,77 @@
+package homework1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the work done once per graph, or per batch of queries:
+ * picking landmarks, contracting a hierarchy and computing a distance
+ * matrix over it. Each is timed as a whole, a few times over.
+ * <p>
+ * Run with the GC profiler, which reports the bytes each run allocates:
+ * <pre>
+ *   java -jar build/libs/oop_hw1-jmh.jar -prof gc PreprocessingBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PreprocessingBenchmark {
+
+	/**
+	 * The number of intersections along each side of the city.
+	 */
+	@Param({ "100" })
+	public int citySize;
+
+	/**
+	 * The number of sources, and of targets, of the distance matrix.
+	 */
+	@Param({ "1000" })
+	public int matrixSize;
+
+	private RoadGraph city;
+	private ContractionHierarchy hierarchy;
+	private GeoPoint[] places;
+
+	@Setup
+	public void setUp() {
+		this.city = new RoadGraph(Synthetic.city(this.citySize));
+		this.hierarchy = ContractionHierarchy.build(this.city);
+		this.places = Synthetic.nodes(this.city, this.matrixSize);
+	}
+
+	@Benchmark
+	public Landmarks farthestLandmarks() {
+		return new Landmarks(this.city, 16, Landmarks.Selection.FARTHEST);
+	}
+
+	@Benchmark
+	public Landmarks avoidLandmarks() {
+		return new Landmarks(this.city, 16, Landmarks.Selection.AVOID);
+	}
+
+	@Benchmark
+	public ContractionHierarchy buildHierarchy() {
+		return ContractionHierarchy.build(this.city);
+	}
+
+	@Benchmark
+	public DistanceMatrix distanceMatrix() {
+		return new DistanceMatrix(this.hierarchy, this.places, this.places);
+	}
+}
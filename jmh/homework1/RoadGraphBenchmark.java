@@ -0,0 +1,74 @@
+package homework1;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Micro-benchmarks of queries on a RoadGraph of a synthetic city: shortest
+ * routes by A* and walking isochrones. Each query starts at the next of a
+ * fixed sequence of random nodes.
+ * <p>
+ * Run with the GC profiler, which reports the bytes each query allocates:
+ * <pre>
+ *   java -jar build/libs/oop_hw1-jmh.jar -prof gc RoadGraphBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RoadGraphBenchmark {
+
+	// the number of random nodes the queries cycle through
+	private static final int NODES = 1024;
+
+	/**
+	 * The number of intersections along each side of the city.
+	 */
+	@Param({ "100", "300" })
+	public int citySize;
+
+	private RoadGraph city;
+	private GeoPoint[] nodes;
+
+	// the index in nodes of the next query's origin
+	private int next = 0;
+
+	@Setup
+	public void setUp() {
+		this.city = new RoadGraph(Synthetic.city(this.citySize));
+		this.nodes = Synthetic.nodes(this.city, NODES);
+	}
+
+	private GeoPoint from() {
+		this.next = (this.next + 1) % NODES;
+		return this.nodes[this.next];
+	}
+
+	private GeoPoint to() {
+		return this.nodes[(this.next + NODES / 2) % NODES];
+	}
+
+	@Benchmark
+	public Route findRoute() {
+		return this.city.findRoute(from(), to());
+	}
+
+	@Benchmark
+	public WalkingIsochrone walkingIsochrone() {
+		return new WalkingIsochrone(this.city, from(), 10, 15, 20);
+	}
+}
@@ -0,0 +1,84 @@
+package homework1;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Micro-benchmarks of building Routes and of giving directions for them,
+ * on synthetic routes of 10 to a million segments.
+ * <p>
+ * Run with the GC profiler, which reports the bytes each route allocates:
+ * <pre>
+ *   java -jar build/libs/oop_hw1-jmh.jar -prof gc RouteBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class RouteBenchmark {
+
+	/**
+	 * The number of segments of the route.
+	 */
+	@Param({ "10", "1000", "100000", "1000000" })
+	public int size;
+
+	private Route route;
+	private final RouteFormatter walking = new WalkingRouteFormatter();
+	private final RouteFormatter driving = new DrivingRouteFormatter();
+
+	@Setup
+	public void setUp() {
+		this.route = Synthetic.route(this.size);
+	}
+
+	@Benchmark
+	public Route addSegment() {
+		return Synthetic.route(this.size);
+	}
+
+	@Benchmark
+	public void getGeoFeatures(Blackhole blackhole) {
+		for (Iterator<GeoFeature> features = this.route.getGeoFeatures(); features.hasNext(); ) {
+			blackhole.consume(features.next());
+		}
+	}
+
+	@Benchmark
+	public String walkingDirections() {
+		return this.walking.computeDirections(this.route, 0);
+	}
+
+	@Benchmark
+	public String drivingDirections() {
+		return this.driving.computeDirections(this.route, 0);
+	}
+
+	@Benchmark
+	public void planAndBothDirections(Blackhole blackhole) {
+		DirectionPlan plan = new DirectionPlan(this.route, 0);
+		blackhole.consume(this.walking.computeDirections(plan));
+		blackhole.consume(this.driving.computeDirections(plan));
+	}
+
+	@Benchmark
+	public String drivingDirectionsInParallel() {
+		return this.driving.computeDirectionsInParallel(this.route, 0);
+	}
+}
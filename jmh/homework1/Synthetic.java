@@ -0,0 +1,88 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Synthetic data for the benchmarks: routes made by driving around the
+ * Trumpeldor - Hagalil - Hanita loop of ExampleGeoSegments as many times
+ * as needed, and cities whose streets form a grid.
+ */
+public final class Synthetic {
+
+	private Synthetic() {
+	}
+
+
+	/**
+	 * Returns a synthetic route.
+	 * @requires size > 0
+	 * @return a Route made of size segments of ExampleGeoSegments, going
+	 *         around the Trumpeldor - Hagalil - Hanita loop.
+	 */
+	public static Route route(int size) {
+		GeoSegment[] loop = loop();
+		Route route = new Route(loop[0]);
+		for (int i = 1; i < size; i++) {
+			route = route.addSegment(loop[i % loop.length]);
+		}
+		return route;
+	}
+
+
+	/**
+	 * Returns the segments of a closed loop of ExampleGeoSegments.
+	 * @return an array a of segments such that a[i].p2 = a[(i+1) % a.length].p1
+	 */
+	private static GeoSegment[] loop() {
+		GeoSegment[] segments = ExampleGeoSegments.segments;
+		return new GeoSegment[] { segments[2], segments[3], segments[4], segments[5], segments[6] };
+	}
+
+
+	/**
+	 * Returns the streets of a synthetic city.
+	 * @requires size > 1
+	 * @return the segments of a size x size grid of intersections about 100
+	 *         meters apart, with streets running east-west and avenues
+	 *         running north-south, and one block in ten missing.
+	 */
+	public static List<GeoSegment> city(int size) {
+		Random random = new Random(size);
+		GeoPoint[][] grid = new GeoPoint[size][size];
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				grid[i][j] = GeoPoint.of(32700000 + 900 * i + random.nextInt(300),
+						                 34900000 + 1070 * j + random.nextInt(300));
+			}
+		}
+		List<GeoSegment> segments = new ArrayList<GeoSegment>();
+		for (int i = 0; i < size; i++) {
+			for (int j = 0; j < size; j++) {
+				if (j + 1 < size && random.nextInt(10) != 0) {
+					segments.add(new GeoSegment("Street " + i, grid[i][j], grid[i][j + 1]));
+				}
+				if (i + 1 < size && random.nextInt(10) != 0) {
+					segments.add(new GeoSegment("Avenue " + j, grid[i][j], grid[i + 1][j]));
+				}
+			}
+		}
+		return segments;
+	}
+
+
+	/**
+	 * Returns random nodes of a graph.
+	 * @requires graph != null && graph.getNodeCount() > 0 && count > 0
+	 * @return count nodes of graph, picked at random with a fixed seed.
+	 */
+	public static GeoPoint[] nodes(RoadGraph graph, int count) {
+		Random random = new Random(count);
+		GeoPoint[] nodes = new GeoPoint[count];
+		for (int i = 0; i < count; i++) {
+			nodes[i] = graph.getNode(random.nextInt(graph.getNodeCount()));
+		}
+		return nodes;
+	}
+}
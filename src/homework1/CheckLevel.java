@@ -0,0 +1,67 @@
+package homework1;
+
+/**
+ * A CheckLevel tells how thoroughly Route and GeoFeature check their
+ * representation invariant.
+ * <p>
+ * Checking the invariant of a Route or a GeoFeature means walking the
+ * whole chain of its segments, which turns every O(1) getter into an O(n)
+ * one. The level is read once from the <tt>homework1.checkLevel</tt> system
+ * property (one of <tt>FULL</tt>, <tt>CONSTRUCTION</tt> or <tt>OFF</tt>) into
+ * a static final field, so the JIT compiler removes the checks that are
+ * turned off. When the property is not set, the level is FULL if assertions
+ * are enabled (as when running the tests with -ea) and OFF otherwise.
+ */
+enum CheckLevel {
+
+	/** No checks at all. */
+	OFF,
+
+	/** Constructors check the part of the invariant they may have broken, in O(1). */
+	CONSTRUCTION,
+
+	/** Constructors and all public methods check the whole invariant. */
+	FULL;
+
+	/**
+	 * Name of the system property that selects the level.
+	 */
+	static final String PROPERTY = "homework1.checkLevel";
+
+	/**
+	 * The level in use by this run of the program.
+	 */
+	static final CheckLevel CURRENT = fromProperty();
+
+	/**
+	 * Returns the level selected by the system property.
+	 * @return the level named by the homework1.checkLevel property if it is set,
+	 *         otherwise FULL if assertions are enabled and OFF if they are not.
+	 * @throws IllegalArgumentException if the property does not name a level.
+	 */
+	private static CheckLevel fromProperty() {
+		String value = System.getProperty(PROPERTY);
+		if (value != null) {
+			return valueOf(value.trim().toUpperCase());
+		}
+		boolean assertionsEnabled = false;
+		assert(assertionsEnabled = true);
+		return assertionsEnabled ? FULL : OFF;
+	}
+
+	/**
+	 * Returns whether public methods should check the whole invariant.
+	 * @return true iff CURRENT == FULL
+	 */
+	static boolean checkMethods() {
+		return CURRENT == FULL;
+	}
+
+	/**
+	 * Returns whether constructors should check the invariant.
+	 * @return true iff CURRENT != OFF
+	 */
+	static boolean checkConstruction() {
+		return CURRENT != OFF;
+	}
+}
@@ -0,0 +1,488 @@
+package homework1;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A ContractionHierarchy is a RoadGraph preprocessed for fast shortest-route
+ * queries. ContractionHierarchies are immutable.
+ * <p>
+ * Preprocessing contracts the nodes of the graph one by one, in an order of
+ * increasing "importance": contracting a node removes it from the graph and
+ * adds a shortcut between any two of its neighbors whose shortest route ran
+ * through it. Each node keeps the arcs that connected it to the nodes still
+ * in the graph when it was contracted; these lead "upward", to nodes
+ * contracted later. Every shortest route in the graph is then matched by a
+ * route of the same length that first climbs upward arcs and then descends
+ * them, so a query searches upward from both of its ends and only settles a
+ * few hundred nodes, even in a city of millions.
+ * <p>
+ * Each shortcut remembers the two arcs it stands for, and each original arc
+ * the edges of the RoadGraph it stands for, so the shortcuts of a route are
+ * unpacked back into the segments of the graph and returned as an ordinary
+ * Route, with its GeoFeatures grouped by street as usual.
+ * <p>
+ * Preprocessing takes a while, and its result can be saved and loaded
+ * again along with the same graph. Queries keep their state in SearchSpaces
+ * borrowed from the pool of the graph, so a ContractionHierarchy may be
+ * queried by several threads at once.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   graph : RoadGraph    // the graph this was built from
+ * </pre>
+ */
+public class ContractionHierarchy {
+
+	// identifies saved hierarchies, and their format
+	private static final int MAGIC = 0x43480002;
+
+	/** The via node of arcs that stand for an edge of the graph rather than a shortcut. */
+	static final int NO_VIA = -1;
+
+	private final RoadGraph graph;
+
+	// The upward arcs of node v are firstArc[v], ..., firstArc[v+1]-1. Arc a leads
+	// from arcSources[a] up to arcTargets[a] and has length arcLengths[a]. If
+	// arcVia[a] == NO_VIA, it stands for the edge arcFirst[a] of the graph, from
+	// source to target, and for the edge arcSecond[a] back; otherwise it is a
+	// shortcut over the node arcVia[a], standing for the arc arcFirst[a] between
+	// the via node and the source and the arc arcSecond[a] between the via node
+	// and the target
+	private final int[] firstArc;
+	private final int[] arcSources;
+	private final int[] arcTargets;
+	private final double[] arcLengths;
+	private final int[] arcVia;
+	private final int[] arcFirst;
+	private final int[] arcSecond;
+
+	/*
+	 * Abstraction function:
+	 *     graph = this.graph
+	 *
+	 * Representation invariant:
+	 *     firstArc.length == graph.getNodeCount() + 1 && firstArc[0] == 0 &&
+	 *     firstArc is nondecreasing && firstArc[graph.getNodeCount()] == arcTargets.length &&
+	 *     all the arc arrays have the same length &&
+	 *     foreach v, a in firstArc[v]..(firstArc[v+1]-1) => arcSources[a] == v &&
+	 *     foreach a => arcLengths[a] is the length of the path of edges a stands for &&
+	 *     foreach a such that arcVia[a] != NO_VIA => arcFirst[a] and arcSecond[a] are
+	 *     upward arcs of arcVia[a]
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function. Only the O(1) part of the invariant is checked.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.firstArc.length == this.graph.getNodeCount() + 1);
+		assert(this.firstArc[0] == 0);
+		assert(this.firstArc[this.graph.getNodeCount()] == this.arcTargets.length);
+		assert(this.arcSources.length == this.arcTargets.length);
+		assert(this.arcLengths.length == this.arcTargets.length);
+		assert(this.arcVia.length == this.arcTargets.length);
+		assert(this.arcFirst.length == this.arcTargets.length);
+		assert(this.arcSecond.length == this.arcTargets.length);
+	}
+
+	/**
+	 * Constructs a new ContractionHierarchy from its upward arcs.
+	 * @requires the arguments satisfy the representation invariant
+	 * @effects Constructs a new ContractionHierarchy of graph with the given arcs.
+	 */
+	ContractionHierarchy(RoadGraph graph, int[] firstArc, int[] arcTargets, double[] arcLengths,
+						 int[] arcVia, int[] arcFirst, int[] arcSecond) {
+		this.graph = graph;
+		this.firstArc = firstArc;
+		this.arcTargets = arcTargets;
+		this.arcLengths = arcLengths;
+		this.arcVia = arcVia;
+		this.arcFirst = arcFirst;
+		this.arcSecond = arcSecond;
+		int nodeCount = graph.getNodeCount();
+		this.arcSources = new int[arcTargets.length];
+		for (int v = 0; v < nodeCount; v++) {
+			Arrays.fill(this.arcSources, firstArc[v], firstArc[v + 1], v);
+		}
+		checkRep();
+	}
+
+	/**
+	 * Preprocesses a graph into a ContractionHierarchy.
+	 * <p>
+	 * Nodes are contracted in rounds, using all available processors: each
+	 * round picks the nodes that are less important than all their remaining
+	 * neighbors, which are never adjacent, and contracts them at once.
+	 * @requires graph != null
+	 * @return a new ContractionHierarchy of graph.
+	 */
+	public static ContractionHierarchy build(RoadGraph graph) {
+		return new HierarchyBuilder(graph).build();
+	}
+
+	/**
+	 * Loads a ContractionHierarchy saved by save().
+	 * @requires graph != null && in != null
+	 * @modifies in
+	 * @effects reads a saved ContractionHierarchy from in.
+	 * @return a new ContractionHierarchy equal to the one that was saved.
+	 * @throws IOException if in throws it, or if what it holds is not a ContractionHierarchy
+	 *         saved from a graph of the same nodes and segments as graph. The graphs are
+	 *         compared by their sizes and by a fingerprint of their nodes and edges.
+	 */
+	public static ContractionHierarchy load(RoadGraph graph, DataInput in) throws IOException {
+		if (in.readInt() != MAGIC) {
+			throw new IOException("not a saved ContractionHierarchy");
+		}
+		int nodeCount = graph.getNodeCount();
+		int edgeCount = 2 * graph.getSegmentCount();
+		if (in.readInt() != nodeCount || in.readInt() != graph.getSegmentCount()
+				|| in.readLong() != fingerprintOf(graph)) {
+			throw new IOException("the ContractionHierarchy was saved from another graph");
+		}
+		int[] firstArc = new int[nodeCount + 1];
+		for (int v = 1; v <= nodeCount; v++) {
+			firstArc[v] = in.readInt();
+			if (firstArc[v] < firstArc[v - 1]) {
+				throw new IOException("corrupt ContractionHierarchy");
+			}
+		}
+		int arcCount = firstArc[nodeCount];
+		int[] arcTargets = new int[arcCount];
+		double[] arcLengths = new double[arcCount];
+		int[] arcVia = new int[arcCount];
+		int[] arcFirst = new int[arcCount];
+		int[] arcSecond = new int[arcCount];
+		for (int a = 0; a < arcCount; a++) {
+			arcTargets[a] = in.readInt();
+			arcLengths[a] = in.readDouble();
+			arcVia[a] = in.readInt();
+			arcFirst[a] = in.readInt();
+			arcSecond[a] = in.readInt();
+			int limit = arcVia[a] == NO_VIA ? edgeCount : arcCount;
+			if (arcTargets[a] < 0 || arcTargets[a] >= nodeCount || arcVia[a] < NO_VIA || arcVia[a] >= nodeCount ||
+					arcFirst[a] < 0 || arcFirst[a] >= limit || arcSecond[a] < 0 || arcSecond[a] >= limit) {
+				throw new IOException("corrupt ContractionHierarchy");
+			}
+		}
+		return new ContractionHierarchy(graph, firstArc, arcTargets, arcLengths, arcVia, arcFirst, arcSecond);
+	}
+
+	/**
+	 * Saves this.
+	 * @requires out != null
+	 * @modifies out
+	 * @effects writes this to out, to be read back by load() along with graph.
+	 * @throws IOException if out throws it.
+	 */
+	public void save(DataOutput out) throws IOException {
+		int nodeCount = this.graph.getNodeCount();
+		out.writeInt(MAGIC);
+		out.writeInt(nodeCount);
+		out.writeInt(this.graph.getSegmentCount());
+		out.writeLong(fingerprintOf(this.graph));
+		for (int v = 1; v <= nodeCount; v++) {
+			out.writeInt(this.firstArc[v]);
+		}
+		for (int a = 0; a < this.arcTargets.length; a++) {
+			out.writeInt(this.arcTargets[a]);
+			out.writeDouble(this.arcLengths[a]);
+			out.writeInt(this.arcVia[a]);
+			out.writeInt(this.arcFirst[a]);
+			out.writeInt(this.arcSecond[a]);
+		}
+	}
+
+	/**
+	 * Returns a fingerprint of a graph, which tells graphs of the same size
+	 * apart.
+	 * @requires graph != null
+	 * @return a hash of the coordinates of the nodes of graph and of the source
+	 *         and target node ids, direction and length bits of its edges, in order.
+	 */
+	private static long fingerprintOf(RoadGraph graph) {
+		PointBuffer nodes = graph.nodes();
+		int nodeCount = graph.getNodeCount();
+		long hash = nodeCount;
+		for (int v = 0; v < nodeCount; v++) {
+			hash = mix(hash, nodes.getLatitude(v));
+			hash = mix(hash, nodes.getLongitude(v));
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			for (int e = graph.edgeBegin(v), end = graph.edgeBegin(v + 1); e < end; e++) {
+				hash = mix(hash, v);
+				hash = mix(hash, graph.isReversed(e) ? ~graph.edgeTarget(e) : graph.edgeTarget(e));
+				hash = mix(hash, Double.doubleToLongBits(graph.edgeLength(e)));
+			}
+		}
+		return hash;
+	}
+
+	/**
+	 * Adds a value to a hash.
+	 * @return the hash of value following hash.
+	 */
+	private static long mix(long hash, long value) {
+		long mixed = (hash ^ value) * 0x9E3779B97F4A7C15L;
+		return mixed ^ (mixed >>> 29);
+	}
+
+	/**
+	 * Returns the graph of this.
+	 * @return graph
+	 */
+	public RoadGraph getGraph() {
+		return this.graph;
+	}
+
+	/**
+	 * Returns the number of shortcuts of this.
+	 * @return the number of shortcuts preprocessing added to graph.
+	 */
+	public int getShortcutCount() {
+		int count = 0;
+		for (int via : this.arcVia) {
+			if (via != NO_VIA) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Finds a shortest route between two points.
+	 * @requires from != null && to != null
+	 * @return a Route r of minimal length such that r.start = from && r.end = to,
+	 *         made of segments and reversed segments of graph, or null if from or to
+	 *         is not a node of graph, if from equals to, or if to cannot be reached
+	 *         from from.
+	 */
+	public Route findRoute(GeoPoint from, GeoPoint to) {
+		int source = this.graph.getNodeId(from);
+		int target = this.graph.getNodeId(to);
+		if (source < 0 || target < 0 || source == target) {
+			return null;
+		}
+		SearchSpacePool pool = this.graph.searchSpaces();
+		SearchSpace forward = pool.borrow();
+		SearchSpace backward = pool.borrow();
+		try {
+			int meeting = search(source, target, forward, backward);
+			if (meeting < 0) {
+				return null;
+			}
+			IntList path = new IntList();
+			appendUpward(forward, meeting, path);
+			appendDownward(backward, meeting, path);
+			return this.graph.routeOf(path.elements(), 0, path.size());
+		} finally {
+			pool.release(forward);
+			pool.release(backward);
+		}
+	}
+
+	/**
+	 * Returns the length of a shortest route between two points.
+	 * @requires from != null && to != null
+	 * @return the length of a shortest route from from to to over graph, in kilometers,
+	 *         which is 0 if from equals to, and +infinity if from or to is not a node of
+	 *         graph or to cannot be reached from from.
+	 */
+	public double getDistance(GeoPoint from, GeoPoint to) {
+		int source = this.graph.getNodeId(from);
+		int target = this.graph.getNodeId(to);
+		if (source < 0 || target < 0) {
+			return Double.POSITIVE_INFINITY;
+		}
+		if (source == target) {
+			return 0;
+		}
+		SearchSpacePool pool = this.graph.searchSpaces();
+		SearchSpace forward = pool.borrow();
+		SearchSpace backward = pool.borrow();
+		try {
+			int meeting = search(source, target, forward, backward);
+			return meeting < 0 ? Double.POSITIVE_INFINITY : forward.distance(meeting) + backward.distance(meeting);
+		} finally {
+			pool.release(forward);
+			pool.release(backward);
+		}
+	}
+
+	/**
+	 * Runs a bidirectional upward search between two nodes.
+	 * <p>
+	 * Both searches only follow upward arcs, and each stops once its closest
+	 * unsettled node is no closer than the best route found so far. A node
+	 * one of the searches reaches more cheaply from a higher node than it
+	 * reached it is "stalled": it cannot lie on a shortest route, and its arcs
+	 * are not followed.
+	 * @requires 0 <= source, target < graph.getNodeCount() && source != target &&
+	 *           forward and backward are distinct SearchSpaces for graph
+	 * @modifies forward, backward
+	 * @effects searches forward from source and backward from target.
+	 * @return a node m on a shortest route from source to target, such that
+	 *         forward.distance(m) + backward.distance(m) is its length and the parent
+	 *         arcs in forward and backward lead from m to source and target, or -1 if
+	 *         target cannot be reached from source.
+	 */
+	int search(int source, int target, SearchSpace forward, SearchSpace backward) {
+		forward.reset();
+		backward.reset();
+		forward.reach(source, 0, SearchSpace.NO_EDGE, SearchSpace.NO_EDGE);
+		forward.heap.add(source, 0);
+		backward.reach(target, 0, SearchSpace.NO_EDGE, SearchSpace.NO_EDGE);
+		backward.heap.add(target, 0);
+		double best = Double.POSITIVE_INFINITY;
+		int meeting = -1;
+		while (true) {
+			boolean forwardOn = !forward.heap.isEmpty() && forward.heap.peekKey() < best;
+			boolean backwardOn = !backward.heap.isEmpty() && backward.heap.peekKey() < best;
+			if (!forwardOn && !backwardOn) {
+				return meeting;
+			}
+			SearchSpace space = forward, other = backward;
+			if (!forwardOn || (backwardOn && backward.heap.peekKey() < forward.heap.peekKey())) {
+				space = backward;
+				other = forward;
+			}
+			int v = settleNext(space);
+			if (v >= 0 && other.isSettled(v)) {
+				double length = space.distance(v) + other.distance(v);
+				if (length < best) {
+					best = length;
+					meeting = v;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Runs an upward search from a node until it settles all it can.
+	 * @requires 0 <= origin < graph.getNodeCount() && space is a SearchSpace for graph
+	 * @modifies space, settled
+	 * @effects searches space upward from origin, to exhaustion, and appends to settled
+	 *          the nodes it settled and did not stall. The distance of a shortest route
+	 *          between two nodes is the smallest sum of their distances to a node both
+	 *          their upward searches appended.
+	 */
+	void searchUpward(int origin, SearchSpace space, IntList settled) {
+		space.reset();
+		space.reach(origin, 0, SearchSpace.NO_EDGE, SearchSpace.NO_EDGE);
+		space.heap.add(origin, 0);
+		while (!space.heap.isEmpty()) {
+			int v = settleNext(space);
+			if (v >= 0) {
+				settled.add(v);
+			}
+		}
+	}
+
+	/**
+	 * Settles the next node of an upward search.
+	 * @requires !space.heap.isEmpty()
+	 * @modifies space
+	 * @effects takes the closest node off the heap of space and, unless it was
+	 *          settled already, settles it and follows its upward arcs unless it is stalled.
+	 * @return the node settled, or -1 if none was or it is stalled.
+	 */
+	private int settleNext(SearchSpace space) {
+		int v = space.heap.poll();
+		if (space.isSettled(v)) {
+			return -1;
+		}
+		space.settle(v);
+		double distance = space.distance(v);
+		int begin = this.firstArc[v], end = this.firstArc[v + 1];
+		for (int a = begin; a < end; a++) {
+			if (space.distance(this.arcTargets[a]) + this.arcLengths[a] < distance) {
+				// stalled: the search reaches v more cheaply down from a higher node
+				return -1;
+			}
+		}
+		for (int a = begin; a < end; a++) {
+			int w = this.arcTargets[a];
+			double candidate = distance + this.arcLengths[a];
+			if (candidate < space.distance(w) && !space.isSettled(w)) {
+				space.reach(w, candidate, v, a);
+				space.heap.add(w, candidate);
+			}
+		}
+		return v;
+	}
+
+	/**
+	 * Appends the edges of the route an upward search found, from its origin up to a node.
+	 * @requires space.isReached(top)
+	 * @modifies path
+	 * @effects appends to path the edges of the graph that the parent arcs of space stand
+	 *          for, from the origin of the search to top.
+	 */
+	void appendUpward(SearchSpace space, int top, IntList path) {
+		int count = 0;
+		for (int v = top; space.parentEdge(v) != SearchSpace.NO_EDGE; v = space.parentNode(v)) {
+			count++;
+		}
+		int[] arcs = new int[count];
+		for (int v = top; space.parentEdge(v) != SearchSpace.NO_EDGE; v = space.parentNode(v)) {
+			arcs[--count] = space.parentEdge(v);
+		}
+		IntList stack = new IntList();
+		for (int a : arcs) {
+			unpack(a, this.arcSources[a], path, stack);
+		}
+	}
+
+	/**
+	 * Appends the edges of the route an upward search found, from a node down to its origin.
+	 * @requires space.isReached(top)
+	 * @modifies path
+	 * @effects appends to path the edges of the graph that the parent arcs of space stand
+	 *          for, from top to the origin of the search.
+	 */
+	void appendDownward(SearchSpace space, int top, IntList path) {
+		IntList stack = new IntList();
+		for (int v = top; space.parentEdge(v) != SearchSpace.NO_EDGE; v = space.parentNode(v)) {
+			unpack(space.parentEdge(v), v, path, stack);
+		}
+	}
+
+	/**
+	 * Appends the edges an arc stands for.
+	 * <p>
+	 * Shortcuts nest as deep as the hierarchy, so they are unpacked with an
+	 * explicit stack of (arc, from) pairs, the next one to unpack on top,
+	 * rather than by recursion.
+	 * @requires 0 <= a < the number of arcs of this && from is an end of a && stack is empty
+	 * @modifies path, stack
+	 * @effects appends to path the edges of the graph that a stands for, in order,
+	 *          traveling a from from to its other end. stack is left empty.
+	 */
+	private void unpack(int a, int from, IntList path, IntList stack) {
+		stack.add(a);
+		stack.add(from);
+		while (stack.size() > 0) {
+			int start = stack.removeLast();
+			int arc = stack.removeLast();
+			int via = this.arcVia[arc];
+			boolean up = start == this.arcSources[arc];
+			if (via == NO_VIA) {
+				path.add(up ? this.arcFirst[arc] : this.arcSecond[arc]);
+			} else {
+				// the half from start to via is unpacked first, so it is pushed last
+				int first = up ? this.arcFirst[arc] : this.arcSecond[arc];
+				int second = up ? this.arcSecond[arc] : this.arcFirst[arc];
+				stack.add(second);
+				stack.add(via);
+				stack.add(first);
+				stack.add(start);
+			}
+		}
+	}
+}
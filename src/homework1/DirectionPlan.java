@@ -0,0 +1,171 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DirectionPlan is the analysis of a Route that every RouteFormatter
+ * needs in order to give directions for it: the sequence of the route's
+ * geographic features, with the name, length and start and end heading of
+ * each, the heading the traveler has when reaching each feature and the
+ * turn needed to get onto it. DirectionPlans are immutable.
+ * <p>
+ * A plan is computed once per route and starting heading, and can then be
+ * rendered by any number of RouteFormatters (e.g. both walking and driving
+ * directions) without recomputing features, headings or turns. The data is
+ * kept in primitive arrays indexed by feature.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   route : Route                // the route this plan gives directions for
+ *   heading : angle              // the heading at the start of the route, in degrees
+ *   features : sequence          // route.geoFeatures
+ *   size : integer               // number of features
+ *   incomingHeading[i] : angle   // heading if i = 0, features[i-1].endHeading otherwise
+ *   turn[i] : TurnType           // turn from incomingHeading[i] to features[i].startHeading
+ * </pre>
+ */
+public final class DirectionPlan {
+
+	private static final TurnType[] TURN_TYPES = TurnType.values();
+
+	private final GeoFeature[] features;
+	private final String[] names;
+	private final double[] lengths;
+	private final double[] startHeadings;
+	private final double[] endHeadings;
+	private final double[] incomingHeadings;
+	private final byte[] turns;
+
+	/*
+	 * Abstraction function:
+	 *     the i'th feature of the plan is features[i], whose name, length, start heading
+	 *     and end heading are names[i], lengths[i], startHeadings[i] and endHeadings[i].
+	 *     incomingHeading[i] = incomingHeadings[i] and turn[i] = TurnType.values()[turns[i]].
+	 *
+	 * Representation invariant:
+	 *     all the arrays have the same length, which is at least 1 &&
+	 *     foreach i in 1..(size-1) => incomingHeadings[i] == endHeadings[i-1]
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		int size = this.features.length;
+		assert(size >= 1);
+		assert(this.names.length == size && this.lengths.length == size &&
+			   this.startHeadings.length == size && this.endHeadings.length == size &&
+			   this.incomingHeadings.length == size && this.turns.length == size);
+	}
+
+	/**
+	 * Constructs a new DirectionPlan.
+	 * @requires route != null && 0 <= heading < 360
+	 * @effects Constructs the DirectionPlan of route, when starting it
+	 *          facing in the specified heading.
+	 */
+	public DirectionPlan(Route route, double heading) {
+		List<GeoFeature> features = new ArrayList<GeoFeature>();
+		for (var iter = route.getGeoFeatures(); iter.hasNext(); ) {
+			features.add(iter.next());
+		}
+
+		int size = features.size();
+		this.features = features.toArray(new GeoFeature[size]);
+		this.names = new String[size];
+		this.lengths = new double[size];
+		this.startHeadings = new double[size];
+		this.endHeadings = new double[size];
+		this.incomingHeadings = new double[size];
+		this.turns = new byte[size];
+
+		double currentHeading = heading;
+		for (int i = 0; i < size; i++) {
+			GeoFeature feature = this.features[i];
+			this.names[i] = feature.getName();
+			this.lengths[i] = feature.getLength();
+			this.startHeadings[i] = feature.getStartHeading();
+			this.endHeadings[i] = feature.getEndHeading();
+			this.incomingHeadings[i] = currentHeading;
+			this.turns[i] = (byte) TurnType.classify(currentHeading, this.startHeadings[i]).ordinal();
+			currentHeading = this.endHeadings[i];
+		}
+		checkRep();
+	}
+
+	/**
+	 * Returns the number of geographic features in this plan.
+	 * @return size
+	 */
+	public int size() {
+		return this.features.length;
+	}
+
+	/**
+	 * Returns a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return features[i]
+	 */
+	public GeoFeature getGeoFeature(int i) {
+		return this.features[i];
+	}
+
+	/**
+	 * Returns the name of a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return features[i].name
+	 */
+	public String getName(int i) {
+		return this.names[i];
+	}
+
+	/**
+	 * Returns the length of a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return features[i].length, in kilometers
+	 */
+	public double getLength(int i) {
+		return this.lengths[i];
+	}
+
+	/**
+	 * Returns the direction of travel at the start of a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return features[i].startHeading, in degrees
+	 */
+	public double getStartHeading(int i) {
+		return this.startHeadings[i];
+	}
+
+	/**
+	 * Returns the direction of travel at the end of a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return features[i].endHeading, in degrees
+	 */
+	public double getEndHeading(int i) {
+		return this.endHeadings[i];
+	}
+
+	/**
+	 * Returns the direction of travel when reaching a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return incomingHeading[i], in degrees
+	 */
+	public double getIncomingHeading(int i) {
+		return this.incomingHeadings[i];
+	}
+
+	/**
+	 * Returns the turn needed to get onto a geographic feature of this plan.
+	 * @requires 0 <= i < size
+	 * @return turn[i]
+	 */
+	public TurnType getTurn(int i) {
+		return TURN_TYPES[this.turns[i]];
+	}
+}
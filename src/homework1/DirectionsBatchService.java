@@ -0,0 +1,305 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A DirectionsBatchService computes directions for many routes at once on
+ * a bounded pool of worker threads.
+ * <p>
+ * A batch is a sequence of Requests, each naming a Route, an initial
+ * heading and the kind of directions wanted. The directions are returned
+ * in the order of the requests, together with the time the batch took.
+ * All requests share one stateless formatter per kind, and requests for
+ * equal Routes and the same heading within a batch share one DirectionPlan,
+ * so asking for both walking and driving directions, or asking twice for
+ * the same commute, costs a single analysis of the route. The first
+ * request for a plan analyzes the route while the requests that need the
+ * same plan wait for it; requests for other plans are not held up.
+ * <p>
+ * A DirectionsBatchService may be used by several threads at once. It
+ * should be closed when it is no longer needed, to stop its threads.
+ */
+public class DirectionsBatchService implements AutoCloseable {
+
+	/**
+	 * The kinds of directions a batch can ask for.
+	 */
+	public enum FormatterKind {
+		WALKING(new WalkingRouteFormatter()),
+		DRIVING(new DrivingRouteFormatter());
+
+		private final RouteFormatter formatter;
+
+		FormatterKind(RouteFormatter formatter) {
+			this.formatter = formatter;
+		}
+
+		/**
+		 * Returns the formatter giving this kind of directions.
+		 * @return the formatter giving this kind of directions, which is
+		 *         shared by all users of this kind.
+		 */
+		public RouteFormatter getFormatter() {
+			return this.formatter;
+		}
+	}
+
+
+	/**
+	 * A Request asks for directions for a single route. Requests are immutable.
+	 */
+	public static final class Request {
+
+		private final Route route;
+		private final double heading;
+		private final FormatterKind kind;
+
+		/**
+		 * Constructs a new Request.
+		 * @requires route != null && kind != null && 0 <= heading < 360
+		 * @effects Constructs a request for kind directions for following
+		 *          route, starting facing in the specified heading.
+		 */
+		public Request(Route route, double heading, FormatterKind kind) {
+			this.route = route;
+			this.heading = heading;
+			this.kind = kind;
+		}
+
+		/**
+		 * Returns the route of this request.
+		 * @return the route of this request.
+		 */
+		public Route getRoute() {
+			return this.route;
+		}
+
+		/**
+		 * Returns the initial heading of this request.
+		 * @return the initial heading of this request, in degrees.
+		 */
+		public double getHeading() {
+			return this.heading;
+		}
+
+		/**
+		 * Returns the kind of directions asked for by this request.
+		 * @return the kind of directions asked for by this request.
+		 */
+		public FormatterKind getKind() {
+			return this.kind;
+		}
+	}
+
+
+	/**
+	 * A Result holds the directions computed for a batch. Results are immutable.
+	 */
+	public static final class Result {
+
+		private final List<String> directions;
+		private final long elapsedNanos;
+		private final int planCount;
+
+		/**
+		 * Constructs a new Result.
+		 * @requires directions != null && planCount >= 0
+		 * @effects Constructs a new Result holding directions, computed in
+		 *          elapsedNanos nanoseconds from planCount DirectionPlans.
+		 */
+		private Result(List<String> directions, long elapsedNanos, int planCount) {
+			this.directions = Collections.unmodifiableList(directions);
+			this.elapsedNanos = elapsedNanos;
+			this.planCount = planCount;
+		}
+
+		/**
+		 * Returns the directions of the batch.
+		 * @return an unmodifiable list whose i'th element is the directions
+		 *         for the i'th request of the batch.
+		 */
+		public List<String> getDirections() {
+			return this.directions;
+		}
+
+		/**
+		 * Returns the time the batch took.
+		 * @return the wall-clock time the batch took, in nanoseconds.
+		 */
+		public long getElapsedNanos() {
+			return this.elapsedNanos;
+		}
+
+		/**
+		 * Returns the number of DirectionPlans the batch built.
+		 * @return the number of DirectionPlans constructed for the batch, one per
+		 *         distinct route and heading its requests asked for.
+		 */
+		int getPlanCount() {
+			return this.planCount;
+		}
+	}
+
+
+	/**
+	 * The key of a DirectionPlan shared by the requests of a batch. Routes
+	 * are compared by value; their hashes are cached, so telling different
+	 * Routes apart costs O(1).
+	 */
+	private static final class PlanKey {
+
+		private final Route route;
+		private final double heading;
+
+		PlanKey(Route route, double heading) {
+			this.route = route;
+			this.heading = heading;
+		}
+
+		public boolean equals(Object o) {
+			if (!(o instanceof PlanKey)) {
+				return false;
+			}
+			PlanKey other = (PlanKey) o;
+			return Double.compare(this.heading, other.heading) == 0 && this.route.equals(other.route);
+		}
+
+		public int hashCode() {
+			return 31 * this.route.hashCode() + Double.hashCode(this.heading);
+		}
+	}
+
+
+	private final ExecutorService executor;
+
+	/**
+	 * Constructs a new DirectionsBatchService.
+	 * @effects Constructs a new DirectionsBatchService using one worker
+	 *          thread per available processor.
+	 */
+	public DirectionsBatchService() {
+		this(Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a new DirectionsBatchService.
+	 * @requires threads > 0
+	 * @effects Constructs a new DirectionsBatchService using the given
+	 *          number of worker threads.
+	 */
+	public DirectionsBatchService(int threads) {
+		AtomicInteger created = new AtomicInteger();
+		this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+			Thread thread = new Thread(runnable, "directions-batch-" + created.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+	/**
+	 * Computes the directions for a batch of requests.
+	 * @requires requests != null && no element of requests is null
+	 * @return a Result whose i'th directions are
+	 *         requests[i].kind.formatter.computeDirections(requests[i].route, requests[i].heading)
+	 * @throws IllegalStateException if this has been closed.
+	 */
+	public Result computeDirections(Collection<Request> requests) {
+		long start = System.nanoTime();
+
+		Map<PlanKey, FutureTask<DirectionPlan>> plans = new ConcurrentHashMap<PlanKey, FutureTask<DirectionPlan>>();
+		AtomicInteger built = new AtomicInteger();
+		List<Callable<String>> tasks = new ArrayList<Callable<String>>(requests.size());
+		for (Request request : requests) {
+			tasks.add(() -> request.kind.getFormatter().computeDirections(planOf(request, plans, built)));
+		}
+
+		List<String> directions = new ArrayList<String>(tasks.size());
+		try {
+			for (Future<String> future : this.executor.invokeAll(tasks)) {
+				directions.add(future.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while computing directions", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		} catch (RejectedExecutionException e) {
+			throw new IllegalStateException("the service has been closed", e);
+		}
+
+		return new Result(directions, System.nanoTime() - start, built.get());
+	}
+
+	/**
+	 * Returns the DirectionPlan of a request, shared by the requests of its batch.
+	 * <p>
+	 * The plan is put in plans as a FutureTask, and built by the request that
+	 * put it there after the map has been updated, so that building it does
+	 * not hold a lock of the map.
+	 * @requires request != null && plans != null && built != null
+	 * @modifies plans, built
+	 * @effects adds to plans a task building the plan of request, if it has none,
+	 *          and counts in built the plan it builds, if any.
+	 * @return the DirectionPlan of request.route starting at request.heading.
+	 * @throws InterruptedException if interrupted while another request builds the plan.
+	 */
+	private static DirectionPlan planOf(Request request, Map<PlanKey, FutureTask<DirectionPlan>> plans,
+										AtomicInteger built) throws InterruptedException {
+		FutureTask<DirectionPlan> task = new FutureTask<DirectionPlan>(() -> {
+			built.incrementAndGet();
+			return new DirectionPlan(request.route, request.heading);
+		});
+		FutureTask<DirectionPlan> plan = plans.putIfAbsent(new PlanKey(request.route, request.heading), task);
+		if (plan == null) {
+			plan = task;
+			plan.run();
+		}
+		try {
+			return plan.get();
+		} catch (ExecutionException e) {
+			// the request that built the plan has failed the same way
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	/**
+	 * Computes the directions for a batch of requests.
+	 * @requires requests != null && no element of requests is null
+	 * @return computeDirections(requests.collect(toList()))
+	 * @throws IllegalStateException if this has been closed.
+	 */
+	public Result computeDirections(Stream<Request> requests) {
+		return computeDirections(requests.collect(Collectors.toList()));
+	}
+
+	/**
+	 * Stops the worker threads of this.
+	 * @modifies this
+	 * @effects stops the worker threads of this once the batches in
+	 *          progress are done. Later batches are rejected.
+	 */
+	public void close() {
+		this.executor.shutdown();
+	}
+}
@@ -0,0 +1,111 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import homework1.DirectionsBatchService.FormatterKind;
+import homework1.DirectionsBatchService.Request;
+
+public class DirectionsBatchServiceTest {
+
+	private GeoSegment[] segments = ExampleGeoSegments.segments;
+	private List<Request> mRequests = new ArrayList<Request>();
+
+
+  	public DirectionsBatchServiceTest() {
+  		Route shortRoute = new Route(segments[1]).addSegment(segments[2]);
+  		Route longRoute = new Route(segments[1]).addSegment(segments[2]).addSegment(segments[3])
+  				                                .addSegment(segments[4]).addSegment(segments[5]);
+  		// equal to shortRoute, but built separately
+  		Route sameRoute = new Route(segments[1]).addSegment(segments[2]);
+
+  		for (int i = 0; i < 50; i++) {
+  			mRequests.add(new Request(longRoute, 0, FormatterKind.DRIVING));
+  			mRequests.add(new Request(shortRoute, 90, FormatterKind.WALKING));
+  			mRequests.add(new Request(sameRoute, 90, FormatterKind.DRIVING));
+  			mRequests.add(new Request(longRoute, i, FormatterKind.WALKING));
+  			mRequests.add(new Request(sameRoute, 90, FormatterKind.WALKING));
+  		}
+  	}
+
+
+  	public void test() {
+  		// each request gets the directions a formatter gives it alone, in input order
+  		boolean ok = true;
+  		try (DirectionsBatchService service = new DirectionsBatchService(4)) {
+  			List<String> directions = service.computeDirections(mRequests).getDirections();
+  			ok = directions.size() == mRequests.size();
+  			for (int i = 0; i < mRequests.size() && ok; i++) {
+  				Request request = mRequests.get(i);
+  				ok = directions.get(i).equals(request.getKind().getFormatter()
+  						.computeDirections(request.getRoute(), request.getHeading()));
+  			}
+
+  			// the same requests, in reverse order
+  			List<Request> reversed = new ArrayList<Request>(mRequests);
+  			Collections.reverse(reversed);
+  			List<String> reversedDirections = service.computeDirections(reversed.stream()).getDirections();
+  			for (int i = 0; i < mRequests.size() && ok; i++) {
+  				ok = reversedDirections.get(i).equals(directions.get(mRequests.size() - 1 - i));
+  			}
+  		}
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+	}
+
+
+  	public void testSharedPlans() {
+  		// requests for equal routes and headings share one plan, whichever kind they ask for
+  		boolean ok = true;
+  		try (DirectionsBatchService service = new DirectionsBatchService(4)) {
+  			DirectionsBatchService.Result result = service.computeDirections(mRequests);
+  			List<String> directions = result.getDirections();
+  			for (int i = 0; i + 5 < mRequests.size() && ok; i += 5) {
+  				ok = directions.get(i + 1).equals(directions.get(i + 4))
+  						&& directions.get(i + 2).equals(directions.get(i + 7))
+  						&& directions.get(i).equals(directions.get(i + 5));
+  			}
+  			// longRoute at headings 0..49, and shortRoute (equal to sameRoute) at 90
+  			ok = ok && result.getPlanCount() == 51;
+
+  			// a batch of identical requests builds a single plan
+  			List<Request> identical = new ArrayList<Request>();
+  			for (int i = 0; i < 200; i++) {
+  				identical.add(new Request(mRequests.get(0).getRoute(), 0,
+  						                  i % 2 == 0 ? FormatterKind.WALKING : FormatterKind.DRIVING));
+  			}
+  			ok = ok && service.computeDirections(identical).getPlanCount() == 1;
+  		}
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+
+
+  	public void testClosed() {
+  		DirectionsBatchService service = new DirectionsBatchService(1);
+  		service.close();
+  		boolean ok = false;
+  		try {
+  			service.computeDirections(mRequests);
+  		} catch (IllegalStateException e) {
+  			ok = true;
+  		}
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+
+
+	public static void main(String[] args) {
+		DirectionsBatchServiceTest batchTest = new DirectionsBatchServiceTest();
+		batchTest.test();
+		batchTest.testSharedPlans();
+		batchTest.testClosed();
+	}
+}
@@ -0,0 +1,36 @@
+package homework1;
+
+/**
+ * A DistanceKernels implements the distance loops of GeoKernels over
+ * arrays of coordinates. GeoKernels picks one implementation when it is
+ * loaded: the vector kernels when the jdk.incubator.vector module is
+ * present, the scalar loops otherwise.
+ * <p>
+ * Package-private; this interface is an implementation detail of
+ * GeoKernels. Implementations hold no state and may be used by several
+ * threads at once.
+ */
+interface DistanceKernels {
+
+	/**
+	 * Computes the lengths of the legs of a path.
+	 * @requires latitudes != null && longitudes != null && out != null &&
+	 *           count <= latitudes.length && count <= longitudes.length && out.length >= count - 1
+	 * @modifies out
+	 * @effects out[i] = the distance from p[i] to p[i+1] for 0 <= i < count - 1, within
+	 *          GeoKernels.TOLERANCE of p[i].distanceTo(p[i+1]), where p[i] is the point
+	 *          (latitudes[i], longitudes[i]).
+	 */
+	void legDistances(int[] latitudes, int[] longitudes, int count, double[] out);
+
+	/**
+	 * Computes the distances from one point to many.
+	 * @requires latitudes != null && longitudes != null && out != null &&
+	 *           count <= latitudes.length && count <= longitudes.length && out.length >= count
+	 * @modifies out
+	 * @effects out[i] = the distance from (latitude, longitude) to p[i] for 0 <= i < count,
+	 *          within GeoKernels.TOLERANCE of (latitude, longitude).distanceTo(p[i]), where
+	 *          p[i] is the point (latitudes[i], longitudes[i]).
+	 */
+	void distancesFrom(int latitude, int longitude, int[] latitudes, int[] longitudes, int count, double[] out);
+}
@@ -0,0 +1,215 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A DistanceMatrix holds the lengths of shortest routes from each of a
+ * sequence of sources to each of a sequence of targets over a road
+ * network, and the minutes it takes to walk them. DistanceMatrices are
+ * immutable.
+ * <p>
+ * The matrix is computed over a ContractionHierarchy with buckets, without
+ * running a search per pair: an upward search from each target leaves, at
+ * every node it settles, an entry (target, distance) in the node's bucket,
+ * and an upward search from each source then scans the buckets of the nodes
+ * it settles, since every shortest route from a source to a target passes
+ * the top node of both their searches. This takes one search per source and
+ * per target instead of one per pair. The searches from the targets, and
+ * then those from the sources, run in parallel.
+ * <p>
+ * Distances are kept in a dense primitive array, row by row. Routes are
+ * only found when asked for, through getRoute().
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   sources : sequence of GeoPoint   // the points routes start at
+ *   targets : sequence of GeoPoint   // the points routes end at
+ *   distances : sequence of double   // distances[i * |targets| + j] is the length of a shortest
+ *                                    // route from sources[i] to targets[j], in kilometers
+ * </pre>
+ */
+public class DistanceMatrix {
+
+	private final ContractionHierarchy hierarchy;
+	private final GeoPoint[] sources;
+	private final GeoPoint[] targets;
+	private final double[] distances;
+
+	/*
+	 * Abstraction function:
+	 *     sources = this.sources, targets = this.targets, distances = this.distances
+	 *
+	 * Representation invariant:
+	 *     hierarchy != null && sources != null && targets != null &&
+	 *     distances.length == sources.length * targets.length
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.hierarchy != null && this.sources != null && this.targets != null);
+		assert(this.distances.length == this.sources.length * this.targets.length);
+	}
+
+	/**
+	 * Constructs a new DistanceMatrix.
+	 * @requires hierarchy != null && sources != null && targets != null &&
+	 *           no element of sources or targets is null
+	 * @effects Constructs a new DistanceMatrix from sources to targets over
+	 *          hierarchy.getGraph(), in which the distance from a point to itself is 0,
+	 *          and the distance from or to a point that is not a node of the graph, or
+	 *          between points with no route between them, is +infinity.
+	 */
+	public DistanceMatrix(ContractionHierarchy hierarchy, GeoPoint[] sources, GeoPoint[] targets) {
+		this.hierarchy = hierarchy;
+		this.sources = sources.clone();
+		this.targets = targets.clone();
+		int columns = this.targets.length;
+		this.distances = new double[this.sources.length * columns];
+		Arrays.fill(this.distances, Double.POSITIVE_INFINITY);
+		RoadGraph graph = hierarchy.getGraph();
+		int nodeCount = graph.getNodeCount();
+
+		// search upward from the targets, keeping the nodes settled and their distances
+		int[][] settled = new int[columns][];
+		double[][] settledDistances = new double[columns][];
+		IntStream.range(0, columns).parallel().forEach(j -> {
+			int target = graph.getNodeId(this.targets[j]);
+			if (target < 0) {
+				settled[j] = new int[0];
+				settledDistances[j] = new double[0];
+				return;
+			}
+			SearchSpace space = graph.searchSpaces().borrow();
+			try {
+				IntList nodes = new IntList();
+				hierarchy.searchUpward(target, space, nodes);
+				settled[j] = Arrays.copyOf(nodes.elements(), nodes.size());
+				settledDistances[j] = new double[nodes.size()];
+				for (int k = 0; k < nodes.size(); k++) {
+					settledDistances[j][k] = space.distance(nodes.get(k));
+				}
+			} finally {
+				graph.searchSpaces().release(space);
+			}
+		});
+
+		// lay the buckets out by node: count, then fill
+		int[] firstEntry = new int[nodeCount + 1];
+		for (int j = 0; j < columns; j++) {
+			for (int v : settled[j]) {
+				firstEntry[v + 1]++;
+			}
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			firstEntry[v + 1] += firstEntry[v];
+		}
+		int[] entryTargets = new int[firstEntry[nodeCount]];
+		double[] entryDistances = new double[firstEntry[nodeCount]];
+		int[] next = Arrays.copyOf(firstEntry, nodeCount);
+		for (int j = 0; j < columns; j++) {
+			for (int k = 0; k < settled[j].length; k++) {
+				int entry = next[settled[j][k]]++;
+				entryTargets[entry] = j;
+				entryDistances[entry] = settledDistances[j][k];
+			}
+		}
+
+		// search upward from the sources, each filling its own row from the buckets
+		IntStream.range(0, this.sources.length).parallel().forEach(i -> {
+			int source = graph.getNodeId(this.sources[i]);
+			if (source < 0) {
+				return;
+			}
+			SearchSpace space = graph.searchSpaces().borrow();
+			try {
+				IntList nodes = new IntList();
+				hierarchy.searchUpward(source, space, nodes);
+				int row = i * columns;
+				for (int k = 0; k < nodes.size(); k++) {
+					int v = nodes.get(k);
+					double distance = space.distance(v);
+					for (int entry = firstEntry[v], end = firstEntry[v + 1]; entry < end; entry++) {
+						int cell = row + entryTargets[entry];
+						this.distances[cell] = Math.min(this.distances[cell], distance + entryDistances[entry]);
+					}
+				}
+			} finally {
+				graph.searchSpaces().release(space);
+			}
+		});
+		checkRep();
+	}
+
+	/**
+	 * Returns the number of sources of this.
+	 * @return |sources|
+	 */
+	public int getSourceCount() {
+		return this.sources.length;
+	}
+
+	/**
+	 * Returns the number of targets of this.
+	 * @return |targets|
+	 */
+	public int getTargetCount() {
+		return this.targets.length;
+	}
+
+	/**
+	 * Returns a distance.
+	 * @requires 0 <= i < getSourceCount() && 0 <= j < getTargetCount()
+	 * @return distances[i * |targets| + j], the length of a shortest route from sources[i]
+	 *         to targets[j], in kilometers.
+	 */
+	public double getDistance(int i, int j) {
+		return this.distances[i * this.targets.length + j];
+	}
+
+	/**
+	 * Returns the time it takes to walk a shortest route.
+	 * @requires 0 <= i < getSourceCount() && 0 <= j < getTargetCount()
+	 * @return the time it takes to walk getDistance(i, j) kilometers, in minutes, at
+	 *         WalkingRouteFormatter.MINUTES_PER_KILOMETER.
+	 */
+	public double getWalkingMinutes(int i, int j) {
+		return getDistance(i, j) * WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+	}
+
+	/**
+	 * Returns the distances of this.
+	 * @return a new array equal to distances.
+	 */
+	public double[] toDistanceArray() {
+		return this.distances.clone();
+	}
+
+	/**
+	 * Returns the walking times of this.
+	 * @return a new array whose element i * |targets| + j is getWalkingMinutes(i, j).
+	 */
+	public double[] toWalkingMinutesArray() {
+		double[] minutes = new double[this.distances.length];
+		for (int cell = 0; cell < minutes.length; cell++) {
+			minutes[cell] = this.distances[cell] * WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+		}
+		return minutes;
+	}
+
+	/**
+	 * Finds a shortest route behind a distance.
+	 * @requires 0 <= i < getSourceCount() && 0 <= j < getTargetCount()
+	 * @return a Route of length getDistance(i, j) from sources[i] to targets[j], or null if
+	 *         getDistance(i, j) is 0 or +infinity.
+	 */
+	public Route getRoute(int i, int j) {
+		return this.hierarchy.findRoute(this.sources[i], this.targets[j]);
+	}
+}
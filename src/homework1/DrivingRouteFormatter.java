@@ -1,7 +1,5 @@
 package homework1;
 
-import java.text.DecimalFormat;
-
 /**
  * The DrivingDirections class creates a textual description of directions
  * for traversing a route that are suitable for a driver of a vehicle.
@@ -23,56 +21,20 @@ import java.text.DecimalFormat;
  * kilometer precision. Each line should be terminated by a newline and
  * should include no extra spaces other than those shown above.
  */
-public class DrivingRouteFormatter extends RouteFormatter {
-  
-  	/**
-     * Computes a single line of a multi-line directions String that
-     * represents the instructions for traversing a single geographic
-     * feature.
-     * @requires 0 <= origHeading < 360
-     * @param geoFeature the geographical feature to traverse.
-     * @param origHeading the initial heading.
-     * @return A newline-terminated <tt>String</tt> that gives
-     * 		   directions on how to traverse this geographical feature.<br>
-     * Calling <tt>computeLine</tt> with a GeoFeature instance and an
-     * initial heading should produce a newline-terminated String in the
-     * following form:
-     * <p>
-     * <tt>
-     * Turn sharp left onto Hanita and go 1.4 kilometers.<br>
-     * </tt>
-     * <p>
-     * In the output above, "Hanita" represents the name of the
-     * geographic feature, and "1.4 kilometers" is the length of the
-     * geographic feature. The length should be reported to
-     * tenth-of-a-kilometer precision. The String should be terminated by a
-     * newline and should include no extra spaces other than those shown
-     * above.
-     **/
-  	public String computeLine(GeoFeature geoFeature, double origHeading) {
-  		
-  		// Implementation hint:
-		// You may find the class java.text.DecimalFormat useful when
-		// implementing this method. More info can be found at:
-  	    // http://docs.oracle.com/javase/tutorial/java/data/numberformat.html
-  		// and at:
-  		// http://docs.oracle.com/javase/8/docs/api/java/text/DecimalFormat.html
-		   		
-  		if (geoFeature == null)
-		{
-			return "error: null argument";
-		}else if ((origHeading < 0) || (origHeading >= 360)) {
-			return "error: bad arguments";
-		}
-  		
-  		// Handling the case in which the geofeature's length is zero by "typing nothing"
-  		if(geoFeature.getLength() == 0) { 
-  			return "";
-  		}
-  		
-  		return String.format("%s onto %s and go %.1f kilometers.\n",
-  									getTurnString(origHeading, geoFeature.getStartHeading()),
-  												geoFeature.getName(), geoFeature.getLength()); 
-  	}
+public class DrivingRouteFormatter extends TemplateRouteFormatter {
+
+	/**
+	 * The template each line of these directions is rendered by.
+	 * @see homework1.LineTemplate
+	 */
+	public static final String TEMPLATE = "{turn} onto {name} and go {km} kilometers.\n";
+
+	/**
+	 * Constructs a new DrivingRouteFormatter.
+	 * @effects Constructs a new DrivingRouteFormatter whose lines are rendered by TEMPLATE.
+	 */
+	public DrivingRouteFormatter() {
+		super(TEMPLATE);
+	}
 
 }
@@ -1,5 +1,9 @@
 package homework1;
 
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Locale;
+
 public class DrivingRouteFormatterTest {
 	
 	private DrivingRouteFormatter mDirections;
@@ -26,8 +30,120 @@ public class DrivingRouteFormatterTest {
 	}
   	
   	
-	public static void main(String[] args) {
+  	public void testAppendable() throws IOException {
+  		StringWriter directions = new StringWriter();
+  		mDirections.computeDirections(mShortRoute, 0, directions);
+		if (directions.toString().equals(mDirections.computeDirections(mShortRoute, 0)))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testTenths() throws IOException {
+  		// the template writer must agree with String.format("%.1f") on every length
+  		boolean ok = true;
+  		for (int i = 0; i < 200000 && ok; i++) {
+  			double length = i / 1000.0;
+  			StringBuilder tenths = new StringBuilder();
+  			LineTemplate.appendTenths(length, tenths);
+  			ok = tenths.toString().equals(String.format(Locale.ROOT, "%.1f", length));
+  		}
+  		// and next to the ties between two tenths, where value * 10 is rounded already
+  		for (int k = 0; k < 100000 && ok; k++) {
+  			double tie = (k + 0.5) / 10;
+  			for (double length : new double[] { Math.nextDown(tie), tie, Math.nextUp(tie),
+  												Math.nextDown(Math.nextDown(tie)), Math.nextUp(Math.nextUp(tie)) }) {
+  				StringBuilder tenths = new StringBuilder();
+  				LineTemplate.appendTenths(length, tenths);
+  				ok = ok && tenths.toString().equals(String.format(Locale.ROOT, "%.1f", length));
+  			}
+  		}
+  		for (double length : new double[] { 0.44999999999999996, 109.94999999999999, 1e12 + 0.05, 123456789.25 }) {
+  			StringBuilder tenths = new StringBuilder();
+  			LineTemplate.appendTenths(length, tenths);
+  			ok = ok && tenths.toString().equals(String.format(Locale.ROOT, "%.1f", length));
+  		}
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testPlan() {
+  		DirectionPlan plan = new DirectionPlan(mShortRoute, 0);
+  		boolean ok = mDirections.computeDirections(plan).equals(mDirections.computeDirections(mShortRoute, 0));
+  		
+  		// another formatter renders the same plan
+  		RouteFormatter other = new WalkingRouteFormatter();
+  		ok = ok && other.computeDirections(plan).equals(other.computeDirections(mShortRoute, 0));
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testParallel() {
+  		// a long route with many features, so that it is rendered in several chunks
+  		GeoSegment[] segments = ExampleGeoSegments.segments;
+  		Route longRoute = new Route(segments[1]);
+  		for (int i = 0; i < RouteFormatter.PARALLEL_CHUNK_SIZE; i++) {
+  			longRoute = longRoute.addSegment(segments[2]).addSegment(segments[3])
+  					             .addSegment(segments[4]).addSegment(segments[5])
+  					             .addSegment(segments[6]).addSegment(segments[1].reverse())
+  					             .addSegment(segments[1]);
+  		}
+  		DirectionPlan plan = new DirectionPlan(longRoute, 0);
+		if (mDirections.computeDirectionsInParallel(plan).equals(mDirections.computeDirections(plan)))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testTurns() {
+  		// just below and at each threshold, turning right and left
+  		boolean ok = true;
+  		String[] right = { "Continue", "Turn slight right", "Turn right", "Turn sharp right", "U-turn" };
+  		String[] left = { "Continue", "Turn slight left", "Turn left", "Turn sharp left", "U-turn" };
+  		double[] thresholds = { 10, 60, 120, 179 };
+  		for (int t = 0; t < thresholds.length; t++) {
+  			double below = thresholds[t] - 0.01;
+  			ok = ok && isTurn(0, below, right[t]) && isTurn(0, thresholds[t], right[t + 1]);
+  			ok = ok && isTurn(below, 0, left[t]) && isTurn(thresholds[t], 0, left[t + 1]);
+  			ok = ok && isTurn(200, (200 + below) % 360, right[t]);
+  			ok = ok && isTurn(200, (200 + thresholds[t]) % 360, right[t + 1]);
+  			ok = ok && isTurn(200, 200 - below, left[t]) && isTurn(200, 200 - thresholds[t], left[t + 1]);
+  		}
+  		ok = ok && isTurn(0, 0, "Continue") && isTurn(90, 270, "U-turn") && isTurn(270, 90, "U-turn");
+  		
+  		// turns across north, where the headings wrap around from 360 to 0
+  		ok = ok && isTurn(359.5, 0.5, "Continue") && isTurn(0.5, 359.5, "Continue");
+  		ok = ok && isTurn(355, 5, "Turn slight right") && isTurn(5, 355, "Turn slight left");
+  		ok = ok && isTurn(350.01, 0, "Continue") && isTurn(0, 350.01, "Continue");
+  		ok = ok && isTurn(300, 59.99, "Turn right") && isTurn(59.99, 300, "Turn left");
+  		ok = ok && isTurn(300, 60, "Turn sharp right") && isTurn(60, 300, "Turn sharp left");
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	private boolean isTurn(double origHeading, double newHeading, String turn) {
+  		return mDirections.getTurnString(origHeading, newHeading).equals(turn);
+  	}
+  	
+  	
+	public static void main(String[] args) throws IOException {
 		DrivingRouteFormatterTest directionsTest = new DrivingRouteFormatterTest();
 		directionsTest.test();
+		directionsTest.testAppendable();
+		directionsTest.testPlan();
+		directionsTest.testParallel();
+		directionsTest.testTenths();
+		directionsTest.testTurns();
 	}
 }
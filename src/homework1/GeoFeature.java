@@ -1,6 +1,5 @@
 package homework1;
 
-import java.util.ArrayList;
 import java.util.Iterator;
 
 /**
@@ -51,33 +50,76 @@ public class GeoFeature {
      *     Geofeature map a list of segments into a path composed of a series of the following linear lines:
      *     (segments[0].p1, segments[0].p2), (segments[1].p1, segments[1].p2), ...,  (segments.last().p1, segments.last().p2).
      *      
+     *     The list of segments is segments[from], ..., segments[to-1].
+     *      
      * Representation invariant:
-     *     segments.size() != 0 &&
-     *     foreach i in 0..(segments.size()-2) => segments[i].p2 == segments[i+1].p1 
+     *     from < to &&
+     *     foreach i in from..(to-2) => segments[i].p2 == segments[i+1].p1 &&
+     *     length = sum (from <= i < to) . segments[i].length &&
+     *     hash = segments.hash(from, to)
      *  
      */
     
-	private final ArrayList<GeoSegment> segments = new ArrayList<GeoSegment>();
+	// A GeoFeature is a range of a buffer that may be shared with other
+	// GeoFeatures and Routes, so that neither addSegment() nor
+	// Route.getGeoFeatures() copy segments. See SegmentBuffer.
+	private final SegmentBuffer segments;
+	private final int from;
+	private final int to;
 	private final double length;
+	private final double startHeading;
+	private final double endHeading;
+	private final long hash;
 
     /**
      * Checks if this's status is in line with the representation invariant. 
      * If this is not the case then the running of the program will stop since the checking operation is done 
      * using the "assert" function.
+     * The check walks all segments, so it is only done at CheckLevel FULL.
      * @effect if assert is enabled, program stops running in case the current status of this
      * 		   does not fulfill the representation invariant
      **/
   	private void checkRep() {
+  		if (CheckLevel.checkMethods()) {
+  			checkWholeRep();
+  		}
+  	}
+
+    /**
+     * Checks the representation invariant of a newly constructed this, as
+     * thoroughly as the current CheckLevel asks for: the whole invariant at
+     * level FULL, and only the link to the last segment at level CONSTRUCTION
+     * (the rest of the chain was checked when it was constructed).
+     * @effect if assert is enabled, program stops running in case the current status of this
+     * 		   does not fulfill the representation invariant
+     **/
+  	private void checkNewRep() {
+  		if (CheckLevel.checkMethods()) {
+  			checkWholeRep();
+  		} else if (CheckLevel.checkConstruction()) {
+  			assert(this.from < this.to);
+  			if (this.to - this.from > 1) {
+  				assert(this.segments.get(this.to - 2).getP2().equals(lastGeoSegment().getP1()));
+  			}
+  		}
+  	}
+
+    /**
+     * Checks the whole representation invariant of this, in O(n).
+     * @effect if assert is enabled, program stops running in case the current status of this
+     * 		   does not fulfill the representation invariant
+     **/
+  	private void checkWholeRep() {
   		
-  		assert(this.segments.size() != 0);
+  		assert(this.from < this.to);
   		
-  		var iter = this.segments.iterator();
-  		GeoSegment current = iter.next();
-  		while (iter.hasNext()) {
-  			var next = iter.next();
+  		GeoSegment current = this.segments.get(this.from);
+  		for (int i = this.from + 1; i < this.to; i++) {
+  			var next = this.segments.get(i);
   			assert(current.getP2().equals(next.getP1()));
   			current = next;
   		}
+  		assert(this.hash == this.segments.hash(this.from, this.to));
   		
   	}
 	
@@ -92,32 +134,37 @@ public class GeoFeature {
      *          r.end = gs.p2
      **/
 	public GeoFeature(GeoSegment gs) {
-		this.segments.add(gs);
-		this.length = gs.getLength();
-	    checkRep();
+		this(new SegmentBuffer(gs), 0, 1, gs.getLength(), gs.getHeading(), gs.getHeading(),
+			 SegmentBuffer.extendHash(0, gs));
+	}
+
+    /**
+     * Constructs a new GeoFeature from a range of a Route's segments.
+     * @requires gs != null && 0 <= from < to <= size of gs &&
+     *           gs[from..to-1] all have the same name
+     * @effects Constructs a new GeoFeature made of gs[from], ..., gs[to-1].
+     **/
+	GeoFeature(SegmentBuffer gs, int from, int to) {
+		this(gs, from, to, gs.length(from, to), gs.startHeading(from, to), gs.endHeading(from, to),
+			 gs.hash(from, to));
 	}
 
     /**
      * Constructs a new GeoFeature.
-     * @requires gs != null && gs.size() != 0
-     * @effects Constructs a new GeoFeature, r, such that
-     *          r.name = gs.name &&
-     *          r.startHeading = gs.heading &&
-     *          r.endHeading = gs.heading &&
-     *          r.start = gs.p1 &&
-     *          r.end = gs.p2
+     * @requires gs[from..to-1] is a valid geographic feature &&
+     *           length, startHeading, endHeading and hash are the ones of that feature
+     * @effects Constructs a new GeoFeature made of gs[from], ..., gs[to-1].
      **/
-	private GeoFeature(ArrayList<GeoSegment> gs) {
-		this.segments.addAll(gs);
-		
-		double length = 0;
-		
-		var iter = gs.iterator();
-		while (iter.hasNext()) {
-			length += iter.next().getLength();
-		}
+	private GeoFeature(SegmentBuffer gs, int from, int to,
+			           double length, double startHeading, double endHeading, long hash) {
+		this.segments = gs;
+		this.from = from;
+		this.to = to;
 		this.length = length;
-		checkRep();
+		this.startHeading = startHeading;
+		this.endHeading = endHeading;
+		this.hash = hash;
+		checkNewRep();
 	}
 	
 	/**
@@ -125,7 +172,7 @@ public class GeoFeature {
      * @return first GeoSegment in the list
      */
 	private GeoSegment firstGeoSegment() {
-		return this.segments.get(0);
+		return this.segments.get(this.from);
 	}
 
 	/**
@@ -133,7 +180,7 @@ public class GeoFeature {
      * @return last GeoSegment in the list
      */
 	private GeoSegment lastGeoSegment() {
-		return this.segments.get(this.segments.size() - 1);
+		return this.segments.get(this.to - 1);
 	}
 	
     /**
@@ -175,21 +222,7 @@ public class GeoFeature {
      */
     public double getStartHeading() {
   		checkRep();
-  		// if the length of this geoFeature is zero then heading is 0 degrees according to the convention we chose
-  		if(this.length == 0) {
-  			return 0;
-  		}
-  		// geoFeature length is not zero; find the first segment with a length longer than zero
-  		Iterator<GeoSegment> iter = this.segments.iterator();
-  		double heading = 0;
-  		while(iter.hasNext()) {
-  			heading = iter.next().getHeading();
-  			if (heading > 0) {
-  				break;
-  			}
-  		}
-  		checkRep();
-  		return heading;
+  		return this.startHeading;
     }
 
 
@@ -202,22 +235,7 @@ public class GeoFeature {
      */
     public double getEndHeading() {
   		checkRep();
-  		// if the length of this geoFeature is zero then heading is 0 degrees according to the convention we chose
-  		if(this.length == 0) {
-  			return 0;
-  		}
-  		// geoFeature's length is not zero; find the last segment with a length longer than zero
-  		Iterator<GeoSegment> iter = this.segments.iterator();
-  		GeoSegment currentGeoSegment = null;
-  		double heading = 0;
-  		while(iter.hasNext()) {
-  			currentGeoSegment = iter.next();
-  			if (currentGeoSegment.getLength() > 0) {
-  				heading = currentGeoSegment.getHeading();
-  			}
-  		}
-  		checkRep();
-  		return heading;
+  		return this.endHeading;
     }
 
 
@@ -245,10 +263,24 @@ public class GeoFeature {
       **/
     public GeoFeature addSegment(GeoSegment gs) {
     	checkRep();
-    	var segmentList = new ArrayList<GeoSegment>(this.segments);
-    	segmentList.add(gs);
+    	
+  		// Extend the shared buffer in place when this is its tip, otherwise
+  		// (this feature was already extended before) branch off into a copy
+    	SegmentBuffer segmentList = this.segments;
+    	int from = this.from;
+    	if (!segmentList.append(this.to, gs)) {
+    		segmentList = this.segments.copyOf(this.from, this.to);
+    		from = 0;
+    		segmentList.append(this.to - this.from, gs);
+    	}
+    	
+  		double startHeading = this.startHeading > 0 ? this.startHeading : gs.getHeading();
+  		double endHeading = gs.getLength() > 0 ? gs.getHeading() : this.endHeading;
+  		
     	checkRep();
-    	return new GeoFeature(segmentList);
+    	return new GeoFeature(segmentList, from, from + this.to - this.from + 1,
+    			              this.length + gs.getLength(), startHeading, endHeading,
+    			              SegmentBuffer.extendHash(this.hash, gs));
     }
 
 
@@ -272,7 +304,7 @@ public class GeoFeature {
      */
     public Iterator<GeoSegment> getGeoSegments() {
     	checkRep();
-        return this.segments.iterator();
+        return this.segments.iterator(this.from, this.to);
     }
 
 
@@ -298,17 +330,17 @@ public class GeoFeature {
 	        return false;
 	    }
 	    
-	    ArrayList<GeoSegment> gsList = ((GeoFeature) o).segments;
+	    GeoFeature other = (GeoFeature) o;
 	    
-	    // Compare size
-	    if (this.segments.size() != gsList.size()) {
+	    // Compare size and content hashes, so that different features are told apart in O(1)
+	    if (this.to - this.from != other.to - other.from || this.hash != other.hash) {
 	    	checkRep();
 	    	return false;
 	    }
 	    
 	    // Compare elements
-	    for (int i = 0; i < this.segments.size(); i++) {
-	    	if (!this.segments.get(i).equals(gsList.get(i))) {
+	    for (int i = 0; i < this.to - this.from; i++) {
+	    	if (!this.segments.get(this.from + i).equals(other.segments.get(other.from + i))) {
 	    		checkRep();
 	    		return false;
 	    	}
@@ -320,11 +352,12 @@ public class GeoFeature {
 
     /**
      * Returns a hash code for this.
-     * @return a hash code for this.
+     * @return a hash code for this, computed from the hash codes of
+     *         geoSegments. It is computed once, when this is constructed.
      **/
     public int hashCode() {
-    	checkRep();    	
-    	return 1;
+    	checkRep();
+    	return (int) GeoPoint.mix(this.hash);
     }
 
 
@@ -334,9 +367,9 @@ public class GeoFeature {
      **/
     public String toString() {
     	checkRep();
-        String result = this.segments.get(0).toString();
+        String result = firstGeoSegment().toString();
         
-	    for (int i = 0; i < this.segments.size(); i++) {
+	    for (int i = this.from; i < this.to; i++) {
 	    	result = String.format("%s,%s", result, this.segments.get(i)); // get(i) ?
 	    }
 	    checkRep();
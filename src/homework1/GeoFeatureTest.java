@@ -118,6 +118,26 @@ public class GeoFeatureTest {
 		gf2 = buildFeature(gf2, 0, 0);
 		show(line(), gf1.equals(gf2));				
 		
+		// extending an older version of a feature must not affect the newer one
+		GeoSegment forth = segments[1];
+		GeoSegment back = segments[1].reverse();
+		gf1 = new GeoFeature(forth).addSegment(back);
+		gf2 = gf1.addSegment(forth);
+		gf3 = gf1.addSegment(forth).addSegment(back);
+		show(line(), !gf2.equals(gf3));
+		show(line(), gf2.getEnd().equals(forth.getP2()));
+		show(line(), gf3.getEnd().equals(back.getP2()));
+		show(line(), gf2.getEndHeading() == forth.getHeading());
+		show(line(), gf3.getEndHeading() == back.getHeading());
+		
+		// the features of a route are views of its segments
+		Route route = new Route(segments[1]).addSegment(segments[2]).addSegment(segments[3]);
+		GeoFeature trumpeldor = route.getGeoFeatures().next();
+		show(line(), trumpeldor.equals(new GeoFeature(segments[1]).addSegment(segments[2])));
+		show(line(), same(trumpeldor.getLength(), segments[1].getLength() + segments[2].getLength()));
+		show(line(), trumpeldor.getStartHeading() == segments[1].getHeading());
+		show(line(), trumpeldor.getEndHeading() == segments[2].getHeading());
+		show(line(), trumpeldor.addSegment(segments[2].reverse()).getEnd().equals(segments[2].getP1()));
   	}
 
 
@@ -0,0 +1,227 @@
+package homework1;
+
+/**
+ * GeoKernels holds batch computations of distances and headings over
+ * arrays of coordinates, for computing the lengths of whole GPS traces or
+ * the distances from one point to many candidates.
+ * <p>
+ * The distance kernels scale each microdegree by a single precomputed
+ * factor instead of dividing by a million and multiplying by
+ * KM_PER_DEGREE_*, so results may differ from GeoPoint.distanceTo() in the
+ * last bits; they are equal within a relative error of TOLERANCE.
+ * When the jdk.incubator.vector module is present at run time (started
+ * with --add-modules jdk.incubator.vector), they run on the Vector API,
+ * a whole vector of points at a time; otherwise they run as scalar loops.
+ * Both give the same results bit for bit. PointBuffer's bulk operations
+ * are these kernels.
+ * <p>
+ * All coordinates are in millionths of degrees, distances are in
+ * kilometers and headings are compass headings in degrees, as in GeoPoint.
+ */
+public final class GeoKernels {
+
+	/**
+	 * The largest relative error of the distance kernels: each distance d
+	 * they compute satisfies |d - e| <= TOLERANCE * e, where e is the
+	 * distance GeoPoint.distanceTo() computes between the same points.
+	 */
+	public static final double TOLERANCE = 1e-15;
+
+	/** Kilometers per millionth of a degree of latitude. */
+	static final double KM_PER_MICRODEGREE_LATITUDE = GeoPoint.KM_PER_DEGREE_LATITUDE / 1000000.0;
+
+	/** Kilometers per millionth of a degree of longitude. */
+	static final double KM_PER_MICRODEGREE_LONGITUDE = GeoPoint.KM_PER_DEGREE_LONGITUDE / 1000000.0;
+
+	/** The scalar distance kernels, which run on every JVM. */
+	static final ScalarKernels SCALAR = new ScalarKernels();
+
+	/** The distance kernels in use: the vector ones if they can be loaded, else SCALAR. */
+	static final DistanceKernels KERNELS = loadKernels();
+
+	private GeoKernels() {
+	}
+
+	/**
+	 * Picks the distance kernels to use.
+	 * @return the vector kernels if the jdk.incubator.vector module is in the
+	 *         boot layer and they can be loaded, else SCALAR.
+	 */
+	private static DistanceKernels loadKernels() {
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return (DistanceKernels) Class.forName("homework1.VectorKernels")
+						.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// the vector kernels are not on the class path; use the scalar ones
+			}
+		}
+		return SCALAR;
+	}
+
+	/**
+	 * Returns whether the distance kernels run on the Vector API.
+	 * @return true if the vector kernels are in use, false if the scalar ones are.
+	 */
+	public static boolean isVectorized() {
+		return KERNELS != SCALAR;
+	}
+
+	/**
+	 * Computes the lengths of the legs of a path.
+	 * @requires latitudes != null && longitudes != null && out != null &&
+	 *           count <= latitudes.length && count <= longitudes.length && out.length >= count - 1
+	 * @modifies out
+	 * @effects out[i] = p[i].distanceTo(p[i+1]), within TOLERANCE, for 0 <= i < count - 1,
+	 *          where p[i] is the point (latitudes[i], longitudes[i]).
+	 */
+	public static void legDistances(int[] latitudes, int[] longitudes, int count, double[] out) {
+		KERNELS.legDistances(latitudes, longitudes, count, out);
+	}
+
+	/**
+	 * Computes the lengths of the legs of the path through the points of a PointBuffer.
+	 * @requires points != null && out != null && out.length >= points.size - 1
+	 * @modifies out
+	 * @effects out[i] = points[i].distanceTo(points[i+1]), within TOLERANCE, for
+	 *          0 <= i < points.size - 1
+	 */
+	public static void legDistances(PointBuffer points, double[] out) {
+		legDistances(points.latitudes(), points.longitudes(), points.size(), out);
+	}
+
+	/**
+	 * Computes the distances from one point to many.
+	 * @requires latitudes != null && longitudes != null && out != null &&
+	 *           count <= latitudes.length && count <= longitudes.length && out.length >= count
+	 * @modifies out
+	 * @effects out[i] = (latitude, longitude).distanceTo(p[i]), within TOLERANCE, for
+	 *          0 <= i < count, where p[i] is the point (latitudes[i], longitudes[i]).
+	 */
+	public static void distancesFrom(int latitude, int longitude,
+			                         int[] latitudes, int[] longitudes, int count, double[] out) {
+		KERNELS.distancesFrom(latitude, longitude, latitudes, longitudes, count, out);
+	}
+
+	/**
+	 * Computes the distances from a point to all the points of a PointBuffer.
+	 * @requires gp != null && points != null && out != null && out.length >= points.size
+	 * @modifies out
+	 * @effects out[i] = gp.distanceTo(points[i]), within TOLERANCE, for 0 <= i < points.size
+	 */
+	public static void distancesFrom(GeoPoint gp, PointBuffer points, double[] out) {
+		distancesFrom(gp.getLatitude(), gp.getLongitude(),
+				      points.latitudes(), points.longitudes(), points.size(), out);
+	}
+
+	/**
+	 * Computes the headings of the legs of a path.
+	 * @requires latitudes != null && longitudes != null && out != null &&
+	 *           count <= latitudes.length && count <= longitudes.length && out.length >= count - 1
+	 * @modifies out
+	 * @effects out[i] = p[i].headingTo(p[i+1]) for 0 <= i < count - 1, or 0 if p[i]
+	 *          equals p[i+1] (as for a GeoSegment of length 0), where p[i] is the
+	 *          point (latitudes[i], longitudes[i]).
+	 */
+	public static void legHeadings(int[] latitudes, int[] longitudes, int count, double[] out) {
+		legHeadings(latitudes, longitudes, count, out, HeadingStrategy.EXACT);
+	}
+
+	/**
+	 * Computes the headings of the legs of a path using a HeadingStrategy.
+	 * <p>
+	 * There is no vector form of atan2, so the angles are computed one at a
+	 * time, but the loop still avoids creating GeoPoints and GeoSegments.
+	 * An approximate strategy makes each angle several times cheaper.
+	 * @requires latitudes != null && longitudes != null && out != null && strategy != null &&
+	 *           count <= latitudes.length && count <= longitudes.length && out.length >= count - 1
+	 * @modifies out
+	 * @effects out[i] = p[i].headingTo(p[i+1], strategy) for 0 <= i < count - 1, or 0
+	 *          if p[i] equals p[i+1], where p[i] is the point (latitudes[i], longitudes[i]).
+	 */
+	public static void legHeadings(int[] latitudes, int[] longitudes, int count, double[] out,
+			                       HeadingStrategy strategy) {
+		for (int i = 0; i < count - 1; i++) {
+			int dy = latitudes[i + 1] - latitudes[i];
+			int dx = longitudes[i + 1] - longitudes[i];
+			out[i] = (dx | dy) == 0 ? 0 : strategy.heading(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]);
+		}
+	}
+
+	/**
+	 * Computes the headings of the legs of the path through the points of a PointBuffer.
+	 * @requires points != null && out != null && out.length >= points.size - 1
+	 * @modifies out
+	 * @effects out[i] = points[i].headingTo(points[i+1]) for 0 <= i < points.size - 1,
+	 *          or 0 if points[i] equals points[i+1]
+	 */
+	public static void legHeadings(PointBuffer points, double[] out) {
+		legHeadings(points, out, HeadingStrategy.EXACT);
+	}
+
+	/**
+	 * Computes the headings of the legs of the path through the points of a
+	 * PointBuffer using a HeadingStrategy.
+	 * @requires points != null && out != null && strategy != null && out.length >= points.size - 1
+	 * @modifies out
+	 * @effects out[i] = points[i].headingTo(points[i+1], strategy) for 0 <= i < points.size - 1,
+	 *          or 0 if points[i] equals points[i+1]
+	 */
+	public static void legHeadings(PointBuffer points, double[] out, HeadingStrategy strategy) {
+		legHeadings(points.latitudes(), points.longitudes(), points.size(), out, strategy);
+	}
+
+	/**
+	 * ScalarKernels computes the distance kernels one point at a time, as
+	 * straight-line loops over primitive arrays with no branches, no calls
+	 * and no object access. It is the fallback when the Vector API is not
+	 * available, and computes the points left over after the last whole
+	 * vector when it is.
+	 */
+	static final class ScalarKernels implements DistanceKernels {
+
+		private ScalarKernels() {
+		}
+
+		public void legDistances(int[] latitudes, int[] longitudes, int count, double[] out) {
+			legDistances(latitudes, longitudes, 0, count, out);
+		}
+
+		/**
+		 * Computes the lengths of the legs of a path from one of its points on.
+		 * @requires as for legDistances(latitudes, longitudes, count, out) && from >= 0
+		 * @modifies out
+		 * @effects out[i] = the distance from p[i] to p[i+1] for from <= i < count - 1,
+		 *          where p[i] is the point (latitudes[i], longitudes[i]).
+		 */
+		void legDistances(int[] latitudes, int[] longitudes, int from, int count, double[] out) {
+			for (int i = from; i < count - 1; i++) {
+				double dy = (latitudes[i + 1] - latitudes[i]) * KM_PER_MICRODEGREE_LATITUDE;
+				double dx = (longitudes[i + 1] - longitudes[i]) * KM_PER_MICRODEGREE_LONGITUDE;
+				out[i] = Math.sqrt(dx * dx + dy * dy);
+			}
+		}
+
+		public void distancesFrom(int latitude, int longitude,
+				                  int[] latitudes, int[] longitudes, int count, double[] out) {
+			distancesFrom(latitude, longitude, latitudes, longitudes, 0, count, out);
+		}
+
+		/**
+		 * Computes the distances from one point to many, from one of them on.
+		 * @requires as for distancesFrom(latitude, longitude, latitudes, longitudes, count, out)
+		 *           && from >= 0
+		 * @modifies out
+		 * @effects out[i] = the distance from (latitude, longitude) to p[i] for from <= i < count,
+		 *          where p[i] is the point (latitudes[i], longitudes[i]).
+		 */
+		void distancesFrom(int latitude, int longitude,
+				           int[] latitudes, int[] longitudes, int from, int count, double[] out) {
+			for (int i = from; i < count; i++) {
+				double dy = (latitudes[i] - latitude) * KM_PER_MICRODEGREE_LATITUDE;
+				double dx = (longitudes[i] - longitude) * KM_PER_MICRODEGREE_LONGITUDE;
+				out[i] = Math.sqrt(dx * dx + dy * dy);
+			}
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package homework1;
 
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
 /**
  * A GeoPoint is a point on the earth. GeoPoints are immutable.
  * <p>
@@ -64,6 +66,15 @@ public class GeoPoint {
     // and distance computations). Because of this, you should consider 
     // using ints for your internal representation of GeoPoint. 
 
+    /**
+     * Number of slots of the pool of shared GeoPoints used by of().
+     */
+    private static final int POOL_SIZE = 1 << 18;
+
+    // A lossy, direct-mapped cache: each pair of coordinates has a single slot,
+    // and a GeoPoint replaces whichever GeoPoint held its slot before
+    private static final AtomicReferenceArray<GeoPoint> pool = new AtomicReferenceArray<GeoPoint>(POOL_SIZE);
+
     private final int latitude;
     private final int longitude;
     
@@ -108,6 +119,39 @@ public class GeoPoint {
         checkRep();
     }
 
+
+    /**
+     * Returns a GeoPoint for a latitude and longitude, sharing GeoPoints with
+     * earlier calls where possible.
+     * <p>
+     * Road networks reach the same intersection from many segments. Loading
+     * their endpoints through of() makes repeated coordinates one GeoPoint,
+     * which saves memory and lets equals() return on its this == gp check.
+     * The pool has a fixed number of slots, so it never holds more than
+     * POOL_SIZE GeoPoints; a point whose slot was taken over by another
+     * point is simply created again. of() may be called by several threads
+     * at once.
+     * @requires the point given by (latitude, longitude) in millionths
+     *           of a degree is valid, as for GeoPoint(latitude, longitude)
+     * @return a GeoPoint equal to new GeoPoint(latitude, longitude), which may
+     *         be the same object as GeoPoints returned by earlier calls.
+     **/
+    public static GeoPoint of(int latitude, int longitude) {
+    	if (longitude == MIN_LONGITUDE) {
+    		longitude = MAX_LONGITUDE;
+    	}
+    	int slot = (int) mix(pack(latitude, longitude)) & (POOL_SIZE - 1);
+
+    	GeoPoint cached = pool.get(slot);
+    	if (cached != null && cached.latitude == latitude && cached.longitude == longitude) {
+    		return cached;
+    	}
+    	GeoPoint gp = new GeoPoint(latitude, longitude);
+    	// GeoPoints are immutable with final fields, so they need no stronger publication
+    	pool.lazySet(slot, gp);
+    	return gp;
+    }
+
      
     /**
      * Returns the latitude of this.
@@ -141,16 +185,7 @@ public class GeoPoint {
     public double distanceTo(GeoPoint gp) {
     	checkRep();
     	
-    	// Calculating the distance of the latitude component of the two points
-        double latitudeDeltaNormalized =  Math.abs(this.latitude - gp.latitude) / 1000000.0; 
-        double latitdudeDistanceKm = latitudeDeltaNormalized * KM_PER_DEGREE_LATITUDE;
-        
-        // Calculating the distance of the longitude component of the two points
-        double longtitudeDeltaNormalized =  Math.abs(this.longitude - gp.longitude) / 1000000.0;
-        double longtitudeDistanceKm = longtitudeDeltaNormalized * KM_PER_DEGREE_LONGITUDE;
-        
-        // Calculating the distance between the two points
-        double distance = Math.sqrt(Math.pow(latitdudeDistanceKm, 2) + Math.pow(longtitudeDistanceKm, 2));
+        double distance = distance(this.latitude, this.longitude, gp.latitude, gp.longitude);
         
         checkRep();
         return distance;
@@ -177,8 +212,58 @@ public class GeoPoint {
        // increase in the counterclockwise direction. 
     	checkRep();
     	
-        double latitudeDelta =  gp.latitude - this.latitude; 
-        double longitudeDelta =  gp.longitude - this.longitude;
+        double heading = heading(this.latitude, this.longitude, gp.latitude, gp.longitude);
+        
+        checkRep();
+        return heading;
+    }
+
+
+    /**
+     * Computes the compass heading between GeoPoints using a HeadingStrategy.
+     * @requires gp != null && strategy != null && !this.equals(gp)
+     * @return strategy.heading(this, gp), a compass heading h from this to gp
+     *         such that 0 <= h < 360 and h is within strategy.maxError degrees
+     *         of headingTo(gp).
+     **/
+    public double headingTo(GeoPoint gp, HeadingStrategy strategy) {
+    	checkRep();
+    	return strategy.heading(this.latitude, this.longitude, gp.latitude, gp.longitude);
+    }
+
+
+    /**
+     * Computes the distance between two points given by their coordinates.
+     * This is the computation behind distanceTo(), shared with the bulk
+     * computations of PointBuffer.
+     * @return the distance from (lat1, lon1) to (lat2, lon2), in kilometers, using the
+     *         flat-surface, near the Technion approximation, where all the coordinates
+     *         are in millionths of degrees.
+     **/
+    static double distance(int lat1, int lon1, int lat2, int lon2) {
+    	// Calculating the distance of the latitude component of the two points
+        double latitudeDistanceKm = Math.abs(lat2 - lat1) / 1000000.0 * KM_PER_DEGREE_LATITUDE;
+        
+        // Calculating the distance of the longitude component of the two points
+        double longitudeDistanceKm = Math.abs(lon2 - lon1) / 1000000.0 * KM_PER_DEGREE_LONGITUDE;
+        
+        // Calculating the distance between the two points
+        return Math.sqrt(latitudeDistanceKm * latitudeDistanceKm + longitudeDistanceKm * longitudeDistanceKm);
+    }
+
+
+    /**
+     * Computes the compass heading between two points given by their coordinates.
+     * This is the computation behind headingTo(), shared with the bulk
+     * computations of PointBuffer.
+     * @requires (lat1, lon1) != (lat2, lon2)
+     * @return the compass heading h from (lat1, lon1) to (lat2, lon2), in degrees,
+     *         such that 0 <= h < 360, where all the coordinates are in millionths
+     *         of degrees.
+     **/
+    static double heading(int lat1, int lon1, int lat2, int lon2) {
+        double latitudeDelta =  lat2 - lat1; 
+        double longitudeDelta =  lon2 - lon1;
         
         // Calculating the angle in radians between the heading directing of a straight path 
         // that starts in point this and ends in poing gp and the positive direction of the X axis.
@@ -187,10 +272,7 @@ public class GeoPoint {
         heading = 360 * heading / (2 * Math.PI); // convert radians to degrees
         
         // transforming the angle to one that is measured with the positive direction of the Y axis (north)
-        heading = (heading + 360 + 90) % 360;  
-        
-        checkRep();
-        return heading;
+        return (heading + 360 + 90) % 360;  
     }
 
 
@@ -228,12 +310,35 @@ public class GeoPoint {
      * @return a hash code value for this GeoPoint.
      **/
     public int hashCode() {
-    	int result = this.latitude ^ this.longitude;
     	checkRep();
-    	// bit-wise XOR between the two numbers the make up the representation of a geo-point 
-    	// provides a viable hash since it is an actual function which means that the hash of a point is well defined.
-    	// in addition to that, it's not entirely unique and this could make it quite helpful in possible uses in hash tables. 
-        return result;
+    	// nearby points have nearly equal coordinates, so XORing them collides a lot; mixing
+    	// the packed coordinates spreads every input bit over the whole hash instead
+        return (int) mix(pack(this.latitude, this.longitude));
+    }
+
+
+    /**
+     * Packs a latitude and a longitude into a single long.
+     * @requires the point given by (latitude, longitude) in millionths of a degree
+     *           is valid, with longitude != MIN_LONGITUDE (as in a GeoPoint)
+     * @return a long k holding latitude in its high 32 bits and longitude in its
+     *         low 32 bits, such that pack(lat1, lon1) == pack(lat2, lon2) iff
+     *         lat1 == lat2 && lon1 == lon2.
+     **/
+    public static long pack(int latitude, int longitude) {
+    	return ((long) latitude << 32) | (longitude & 0xffffffffL);
+    }
+
+
+    /**
+     * Mixes the bits of a long into a hash.
+     * @return a 64-bit hash of key in which every bit depends on every bit of key
+     *         (the finalizer of the MurmurHash3 hash function).
+     **/
+    public static long mix(long key) {
+    	key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+    	key = (key ^ (key >>> 33)) * 0xc4ceb9fe1a85ec53L;
+    	return key ^ (key >>> 33);
     }
 
 
@@ -26,9 +26,14 @@ package homework1;
  * A name is given to all GeoSegment objects so that it is possible to
  * differentiate between two GeoSegment objects with identical
  * GeoPoint endpoints. Equality between GeoSegment objects requires
- * that the names be equal String objects and the end points be equal
+ * that the names be equal Strings and the end points be equal
  * GeoPoint objects.
  * </p>
+ * <p>
+ * A GeoSegment holds the id its name has in the StreetNameTable rather
+ * than the name itself, so comparing names is an int comparison that works
+ * for names read from files as well as for String literals.
+ * </p>
  *
  * <b>The following fields are used in the specification:</b>
  * <pre>
@@ -41,18 +46,27 @@ package homework1;
  **/
 public class GeoSegment  {
 
-        final private String name;
+        final private int nameId;
         final private GeoPoint p1;
         final private GeoPoint p2;
         final private double length;
-        final private double heading;
+        
+        // the heading is computed by the first call to getHeading(), so that building and
+        // reversing segments, e.g. when ingesting a road network, costs no Math.atan2();
+        // it is volatile so that a heading written by one thread is read whole by others
+        private volatile double heading = UNKNOWN_HEADING;
+        
+        private static final double UNKNOWN_HEADING = Double.NaN;
         
         /*
          * Abstraction function:
          *   GeoSegment (p1,p2) represent a strait directed line on earth starting from p1 and ending on p2
+         *   name = StreetNameTable.nameOf(nameId)
+         *   heading = this.heading if it is not UNKNOWN_HEADING, p1.headingTo(p2) (or 0 if p1 = p2)
+         *             otherwise
          * 
          * Representation invariant:
-         *   NONE 
+         *   this.heading is UNKNOWN_HEADING or the heading of the abstraction function
          *   still we added checkRep() within the methods in case some changes were made
          *   and a future condition must hold true.
          */
@@ -75,16 +89,21 @@ public class GeoSegment  {
          * @effects constructs a new GeoSegment with the specified name and endpoints.
          **/
         public GeoSegment(String name, GeoPoint p1, GeoPoint p2) {
-            this.name = name;
+            this(StreetNameTable.idOf(name), p1, p2);
+        }
+        
+        
+        /**
+         * Constructs a new GeoSegment with the specified name id and endpoints.
+         * @requires 0 <= nameId < StreetNameTable.size() && p1 != null && p2 != null
+         * @effects constructs a new GeoSegment named StreetNameTable.nameOf(nameId) with the
+         *          specified endpoints.
+         **/
+        private GeoSegment(int nameId, GeoPoint p1, GeoPoint p2) {
+            this.nameId = nameId;
             this.p1 = p1;
             this.p2 = p2;
             this.length = p1.distanceTo(p2);
-            // handle the corner case in which p1 == p2 (length = 0)
-            if(p1.equals(p2) == true) {
-            	this.heading = 0;
-            } else {
-            	this.heading = p1.headingTo(p2);
-            }
             checkRep();
         }
         
@@ -96,17 +115,29 @@ public class GeoSegment  {
          **/
         public GeoSegment reverse() {
         	checkRep();
-        	return new GeoSegment(this.name, this.p2, this.p1);
+        	return new GeoSegment(this.nameId, this.p2, this.p1);
         }
         
         
         /**
          * Returns the name of this GeoSegment.
-         * @return the name of this GeoSegment.
+         * @return the name of this GeoSegment, as the canonical String of
+         *         the StreetNameTable.
          */
         public String getName() {
         	checkRep();
-            return this.name;
+            return StreetNameTable.nameOf(this.nameId);
+        }
+        
+        
+        /**
+         * Returns the id of the name of this GeoSegment.
+         * @return StreetNameTable.idOf(name), such that two GeoSegments have
+         *         equal names iff they have equal name ids.
+         */
+        public int getNameId() {
+        	checkRep();
+            return this.nameId;
         }
         
         
@@ -148,10 +179,34 @@ public class GeoSegment  {
          **/
         public double getHeading() {
         	checkRep();
+        	double heading = this.heading;
+        	if (Double.isNaN(heading)) {
+        		// handle the corner case in which p1 == p2 (length = 0)
+        		heading = this.p1.equals(this.p2) ? 0 : this.p1.headingTo(this.p2);
+        		this.heading = heading;
+        	}
             return heading;
         }
         
         
+        /**
+         * Computes the compass heading from p1 to p2 using a HeadingStrategy.
+         * <p>
+         * The heading is computed on each call and is not part of the state of
+         * this, so equal GeoSegments give equal headings for the same strategy.
+         * Since getHeading() only computes the exact heading when it is first
+         * called, a segment whose headings are only read through an approximate
+         * strategy never pays for Math.atan2().
+         * @requires strategy != null
+         * @return p1.headingTo(p2, strategy), a compass heading within strategy.maxError
+         *         degrees of getHeading(), or 0 if this.length == 0
+         **/
+        public double getHeading(HeadingStrategy strategy) {
+        	checkRep();
+        	return this.p1.equals(this.p2) ? 0 : this.p1.headingTo(this.p2, strategy);
+        }
+        
+        
         /**
          * Compares the specified Object with this GeoSegment for equality.
          * @return gs != null && (gs instanceof GeoSegment)
@@ -179,7 +234,7 @@ public class GeoSegment  {
   	      	GeoSegment other = (GeoSegment) gs;
   	      	
   	        checkRep();
-  	      	return this.p1.equals(other.p1) && this.p2.equals(other.p2) && this.name == other.name;
+  	      	return this.nameId == other.nameId && this.p1.equals(other.p1) && this.p2.equals(other.p2);
         }
         
         
@@ -193,7 +248,7 @@ public class GeoSegment  {
         	// geo-segment (using the built-in hash for the string field)
         	// this provides a viable hash since it is an actual function which means that the hash of a segment is well defined.
         	// in addition to that, it's not entirely unique and this could make it quite helpful in possible uses in hash tables.
-        	return this.name.hashCode() ^ this.p1.hashCode() ^ this.p2.hashCode();
+        	return getName().hashCode() ^ this.p1.hashCode() ^ this.p2.hashCode();
         }
         
         
@@ -203,7 +258,7 @@ public class GeoSegment  {
          **/
         public String toString() {
         	checkRep();
-        	return String.format("%s, %s, %s", this.name, this.p1.toString(), this.p2.toString());
+        	return String.format("%s, %s, %s", getName(), this.p1.toString(), this.p2.toString());
         }
 
 }
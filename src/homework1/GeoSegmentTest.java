@@ -121,10 +121,60 @@ public class GeoSegmentTest {
 		show("South heading should be 180",
 		 	same(gsNorth.reverse().getHeading(), 180.0));		
   	}
+  	
+  	
+  	public void testPool() {
+  		show("GeoPoint.of()");
+  		GeoPoint gp = GeoPoint.of(32783098,35014528);
+  		show("of() is equal to a new GeoPoint", gp.equals(gpZivSquare));
+  		show("Repeated coordinates share a GeoPoint", GeoPoint.of(32783098,35014528) == gp);
+  		show("Different coordinates are different GeoPoints",
+  			!GeoPoint.of(32792115,35014528).equals(gp));
+  		show("-180 longitude is shared with 180",
+  			GeoPoint.of(0, GeoPoint.MIN_LONGITUDE) == GeoPoint.of(0, GeoPoint.MAX_LONGITUDE));
+  		
+  		// more points than the pool holds still come out right
+  		boolean allEqual = true;
+  		for (int i = 0; i < 1000000; i++) {
+  			int latitude = 32700000 + i % 1000;
+  			int longitude = 34900000 + i / 1000;
+  			GeoPoint p = GeoPoint.of(latitude, longitude);
+  			allEqual &= p.getLatitude() == latitude && p.getLongitude() == longitude;
+  		}
+  		show("of() returns the requested coordinates when the pool overflows", allEqual);
+  	}
+  	
+  	
+  	public void testNames() {
+  		show("StreetNameTable");
+  		// names read from a file are fresh Strings, not literals
+  		String east = new String("East");
+  		GeoSegment gsEast3 = new GeoSegment(east, gpZivSquare, gpEast);
+  		show("Segments named by equal Strings are equal", gsEast3.equals(gsEast));
+  		show("Equal segments have equal hash codes", gsEast3.hashCode() == gsEast.hashCode());
+  		show("Names are shared", gsEast3.getName() == gsEast.getName());
+  		show("Name ids are shared", gsEast3.getNameId() == gsEast.getNameId());
+  		show("Different names have different ids", gsEast.getNameId() != gsWest.getNameId());
+  		show("Reversal keeps the name id", gsEast.reverse().getNameId() == gsEast.getNameId());
+  		show("nameOf(idOf()) is the name",
+  			StreetNameTable.nameOf(StreetNameTable.idOf("North")).equals("North"));
+  		
+  		// a route of freshly named segments still groups them into features
+  		Route route = new Route(new GeoSegment(new String("Hanita"), gpWest, gpZivSquare))
+  			.addSegment(new GeoSegment(new String("Hanita"), gpZivSquare, gpEast))
+  			.addSegment(new GeoSegment(new String("Hagalil"), gpEast, gpNorth));
+  		int features = 0;
+  		for (var iter = route.getGeoFeatures(); iter.hasNext(); iter.next()) {
+  			features++;
+  		}
+  		show("Fresh Strings of the same name form one feature", features == 2);
+  	}
 
 
 	public static void main(String[] args) {
 		GeoSegmentTest segmentTest = new GeoSegmentTest();
 		segmentTest.test();
+		segmentTest.testPool();
+		segmentTest.testNames();
 	}
 }
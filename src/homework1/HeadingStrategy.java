@@ -0,0 +1,164 @@
+package homework1;
+
+/**
+ * A HeadingStrategy computes compass headings between points, trading
+ * accuracy for speed. HeadingStrategies are immutable.
+ * <p>
+ * EXACT computes headings as GeoPoint.headingTo() always did, with
+ * Math.atan2(). approximate(maxError) computes them from a small table of
+ * arctangents with linear interpolation, which is several times faster and
+ * is never further than maxError degrees from the exact heading. An error
+ * bound of 0.05 degrees, say, is far below the 10 degree buckets in which
+ * RouteFormatter classifies turns, so it suits bulk ingestion of road
+ * networks, where the heading of every segment is computed.
+ * <p>
+ * A strategy is applied where a heading is computed, by
+ * GeoPoint.headingTo(gp, strategy), GeoSegment.getHeading(strategy) or
+ * GeoKernels.legHeadings(). GeoSegment.getHeading() always gives the exact
+ * heading, so that equal segments have equal headings, but it computes it
+ * only when first asked: building or reversing a GeoSegment computes no
+ * heading, so ingesting segments whose headings are read approximately, or
+ * not at all, never calls Math.atan2(). The headings of Routes and
+ * GeoFeatures, which directions are given from, stay exact.
+ * <p>
+ * Compass headings are measured in degrees, such that north = 0,
+ * east = 90, south = 180 and west = 270, and all coordinates are in
+ * millionths of degrees, as in GeoPoint.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   maxError : real    // the largest difference from the exact heading, in degrees
+ * </pre>
+ */
+public abstract class HeadingStrategy {
+
+	/**
+	 * The strategy computing the exact headings of GeoPoint.headingTo().
+	 */
+	public static final HeadingStrategy EXACT = new HeadingStrategy(0) {
+		public double heading(int lat1, int lon1, int lat2, int lon2) {
+			return GeoPoint.heading(lat1, lon1, lat2, lon2);
+		}
+	};
+
+	// The error of linear interpolation over steps of size h is at most
+	// max|atan''| * h^2 / 8, and max|atan''| = 3 * sqrt(3) / 8 (at 1 / sqrt(3))
+	private static final double INTERPOLATION_ERROR_FACTOR = 3 * Math.sqrt(3) / 64;
+
+	private final double maxError;
+
+	/**
+	 * Constructs a new HeadingStrategy.
+	 * @requires maxError >= 0
+	 * @effects Constructs a new HeadingStrategy with the given maxError.
+	 */
+	private HeadingStrategy(double maxError) {
+		this.maxError = maxError;
+	}
+
+	/**
+	 * Returns a strategy computing approximate headings.
+	 * @requires maxErrorDegrees > 0
+	 * @return a HeadingStrategy s such that s.maxError = maxErrorDegrees.
+	 *         The strategy keeps a table whose size is proportional to
+	 *         1 / sqrt(maxErrorDegrees): 10 entries for 0.05 degrees, and
+	 *         about 2200 for a millionth of a degree.
+	 */
+	public static HeadingStrategy approximate(double maxErrorDegrees) {
+		return new ApproximateHeading(maxErrorDegrees);
+	}
+
+	/**
+	 * Returns the largest error of the headings of this.
+	 * @return maxError
+	 */
+	public double getMaxError() {
+		return this.maxError;
+	}
+
+	/**
+	 * Computes the compass heading between two points given by their coordinates.
+	 * @requires (lat1, lon1) != (lat2, lon2)
+	 * @return a compass heading h from (lat1, lon1) to (lat2, lon2), in degrees,
+	 *         such that 0 <= h < 360 and h is no further than maxError degrees
+	 *         (going around the compass) from GeoPoint.headingTo().
+	 */
+	public abstract double heading(int lat1, int lon1, int lat2, int lon2);
+
+
+	/**
+	 * A HeadingStrategy interpolating a table of arctangents.
+	 * <p>
+	 * The heading is reduced to an angle between 0 and 45 degrees, whose
+	 * tangent t = min(|dx|, |dy|) / max(|dx|, |dy|) is between 0 and 1, and
+	 * atan(t) is interpolated linearly between the entries of the table.
+	 */
+	private static final class ApproximateHeading extends HeadingStrategy {
+
+		private final double[] atanDegrees;
+		private final int steps;
+
+		/*
+		 * Abstraction function:
+		 *     maxError = the maxErrorDegrees the strategy was constructed with
+		 *
+		 * Representation invariant:
+		 *     steps >= 1 && atanDegrees.length == steps + 2 &&
+		 *     foreach i in 0..steps => atanDegrees[i] = atan(i / steps) in degrees &&
+		 *     atanDegrees[steps + 1] = atanDegrees[steps]
+		 */
+
+		/**
+		 * Constructs a new ApproximateHeading.
+		 * @requires maxErrorDegrees > 0
+		 * @effects Constructs a new ApproximateHeading with maxError = maxErrorDegrees.
+		 */
+		ApproximateHeading(double maxErrorDegrees) {
+			super(maxErrorDegrees);
+			double step = Math.sqrt(Math.toRadians(maxErrorDegrees) / INTERPOLATION_ERROR_FACTOR);
+			this.steps = (int) Math.max(1, Math.ceil(1 / step));
+			// the extra entry lets t = 1 interpolate without a bounds check
+			this.atanDegrees = new double[this.steps + 2];
+			for (int i = 0; i <= this.steps; i++) {
+				this.atanDegrees[i] = Math.toDegrees(Math.atan((double) i / this.steps));
+			}
+			this.atanDegrees[this.steps + 1] = this.atanDegrees[this.steps];
+		}
+
+		public double heading(int lat1, int lon1, int lat2, int lon2) {
+			double dy = (double) lat2 - lat1;
+			double dx = (double) lon2 - lon1;
+			double ax = Math.abs(dx);
+			double ay = Math.abs(dy);
+
+			// the angle from the nearest of north and south, in 0..90
+			double angle;
+			if (ax <= ay) {
+				angle = atan(ax / ay);
+			} else {
+				angle = 90 - atan(ay / ax);
+			}
+
+			// put the angle in its quadrant of the compass
+			if (dy < 0) {
+				angle = 180 - angle;
+			}
+			if (dx < 0) {
+				angle = 360 - angle;
+			}
+			return angle < 360 ? angle : angle - 360;
+		}
+
+		/**
+		 * Interpolates the arctangent of t.
+		 * @requires 0 <= t <= 1
+		 * @return atan(t) in degrees, within maxError.
+		 */
+		private double atan(double t) {
+			double x = t * this.steps;
+			int i = (int) x;
+			double fraction = x - i;
+			return this.atanDegrees[i] + fraction * (this.atanDegrees[i + 1] - this.atanDegrees[i]);
+		}
+	}
+}
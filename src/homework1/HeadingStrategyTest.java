@@ -0,0 +1,180 @@
+package homework1;
+
+import java.util.Random;
+
+public class HeadingStrategyTest {
+
+	private static final double maxError = 0.05;
+
+	// Turn boundaries of TurnType, measured clockwise from the original heading
+	private static final double[] boundaries = { 10, 60, 120, 179, 181, 240, 300, 350 };
+
+	private HeadingStrategy approximate = HeadingStrategy.approximate(maxError);
+	private Random random = new Random(14);
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+	// Get the current line number in Java
+	public static String line() {
+		return String.format("%d", Thread.currentThread().getStackTrace()[2].getLineNumber());
+	}
+
+
+	/**
+	 * Returns the distance between two compass headings, going around the compass.
+	 */
+	private static double difference(double h1, double h2) {
+		double d = Math.abs(h1 - h2);
+		return Math.min(d, 360 - d);
+	}
+
+
+	/**
+	 * Returns a random point near the Technion, in a box about 20 km across.
+	 */
+	private GeoPoint randomPoint() {
+		return new GeoPoint(32700000 + this.random.nextInt(200000), 34950000 + this.random.nextInt(200000));
+	}
+
+
+	public void testBound() {
+		show("error bound");
+		show(line(), HeadingStrategy.EXACT.getMaxError() == 0);
+		show(line(), approximate.getMaxError() == maxError);
+
+		// the compass points, exactly
+		GeoPoint center = new GeoPoint(32780000, 35020000);
+		show(line(), center.headingTo(new GeoPoint(32790000, 35020000), approximate) == 0);
+		show(line(), center.headingTo(new GeoPoint(32780000, 35030000), approximate) == 90);
+		show(line(), center.headingTo(new GeoPoint(32770000, 35020000), approximate) == 180);
+		show(line(), center.headingTo(new GeoPoint(32780000, 35010000), approximate) == 270);
+
+		boolean withinBound = true, inRange = true;
+		for (int i = 0; i < 1000000; i++) {
+			GeoPoint p1 = randomPoint();
+			GeoPoint p2 = randomPoint();
+			if (p1.equals(p2)) {
+				continue;
+			}
+			double h = p1.headingTo(p2, approximate);
+			inRange &= h >= 0 && h < 360;
+			withinBound &= difference(h, p1.headingTo(p2)) <= maxError;
+			withinBound &= p1.headingTo(p2, HeadingStrategy.EXACT) == p1.headingTo(p2);
+		}
+		show(line(), inRange);
+		show(line(), withinBound);
+
+		// very short segments, where the coordinates differ by a few millionths
+		boolean shortOk = true;
+		for (int dy = -3; dy <= 3; dy++) {
+			for (int dx = -3; dx <= 3; dx++) {
+				if (dx != 0 || dy != 0) {
+					GeoPoint p2 = new GeoPoint(center.getLatitude() + dy, center.getLongitude() + dx);
+					shortOk &= difference(center.headingTo(p2, approximate), center.headingTo(p2)) <= maxError;
+				}
+			}
+		}
+		show(line(), shortOk);
+	}
+
+
+	public void testSegments() {
+		show("segments");
+		GeoSegment segment = ExampleGeoSegments.segments[2];
+		GeoSegment copy = new GeoSegment(segment.getName(), segment.getP1(), segment.getP2());
+		show(line(), difference(segment.getHeading(approximate), segment.getHeading()) <= maxError);
+		show(line(), difference(segment.reverse().getHeading(approximate), segment.reverse().getHeading()) <= maxError);
+		show(line(), segment.getHeading(HeadingStrategy.EXACT) == segment.getHeading());
+		// equal segments, equal headings
+		show(line(), copy.equals(segment) && copy.getHeading(approximate) == segment.getHeading(approximate));
+		GeoPoint p = ExampleGeoSegments.points[1];
+		show(line(), new GeoSegment("Empty", p, p).getHeading(approximate) == 0);
+		show(line(), new GeoSegment("Empty", p, p).getHeading() == 0);
+		// the exact heading is computed when first asked for, and stays the same
+		GeoSegment fresh = segment.reverse().reverse();
+		show(line(), fresh.getHeading() == segment.getP1().headingTo(segment.getP2())
+				&& fresh.getHeading() == fresh.getHeading());
+		show(line(), segment.reverse().getHeading() == segment.getP2().headingTo(segment.getP1()));
+	}
+
+
+	public void testTurns() {
+		show("turn classification on a synthetic network");
+		// random walks through a grid of intersections, as a road network would be ingested
+		int turns = 0, nearBoundary = 0;
+		boolean identical = true;
+		for (int walk = 0; walk < 2000; walk++) {
+			GeoPoint previous = randomPoint();
+			GeoPoint current = randomPoint();
+			GeoSegment in = new GeoSegment("Street", previous, current);
+			for (int step = 0; step < 500; step++) {
+				GeoPoint next = new GeoPoint(current.getLatitude() + this.random.nextInt(2001) - 1000,
+						                     current.getLongitude() + this.random.nextInt(2001) - 1000);
+				if (next.equals(current)) {
+					continue;
+				}
+				GeoSegment out = new GeoSegment("Street", current, next);
+
+				// each heading may be off by maxError, so the angle of the turn by twice that
+				double angle = (out.getHeading() - in.getHeading() + 360) % 360;
+				boolean near = false;
+				for (double boundary : boundaries) {
+					near |= Math.abs(angle - boundary) <= 2 * maxError;
+				}
+				if (near) {
+					nearBoundary++;
+				} else {
+					turns++;
+					identical &= TurnType.classify(in.getHeading(), out.getHeading())
+							== TurnType.classify(in.getHeading(approximate), out.getHeading(approximate));
+				}
+				in = out;
+				current = next;
+			}
+		}
+		show(line(), identical);
+		System.out.println("  " + turns + " turns compared, " + nearBoundary
+				+ " within " + (2 * maxError) + " degrees of a turn boundary excluded");
+	}
+
+
+	public void testKernels() {
+		show("kernels");
+		PointBuffer buffer = new PointBuffer();
+		for (int i = 0; i < 10000; i++) {
+			buffer.add(randomPoint());
+		}
+		double[] exact = new double[buffer.size() - 1];
+		double[] approx = new double[buffer.size() - 1];
+		GeoKernels.legHeadings(buffer, exact);
+		GeoKernels.legHeadings(buffer, approx, approximate);
+		boolean ok = true;
+		for (int i = 0; i < exact.length; i++) {
+			ok &= difference(exact[i], approx[i]) <= maxError;
+		}
+		show(line(), ok);
+	}
+
+
+	public static void main(String[] args) {
+		HeadingStrategyTest test = new HeadingStrategyTest();
+		test.testBound();
+		test.testSegments();
+		test.testTurns();
+		test.testKernels();
+	}
+
+}
@@ -0,0 +1,427 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A HierarchyBuilder contracts the nodes of a RoadGraph into a
+ * ContractionHierarchy.
+ * <p>
+ * The nodes still to be contracted form a "remaining graph", kept as one
+ * small adjacency array per node, that starts as the RoadGraph (with each
+ * pair of nodes joined by at most its shortest segment) and gains a
+ * shortcut arc whenever a contracted node was the only shortest way between
+ * two of its neighbors. Whether it was is decided by a "witness search": a
+ * Dijkstra search from one neighbor to the others that avoids the node,
+ * limited in distance and in the number of nodes it settles. A search that
+ * gives up early only costs an unneeded shortcut, never a wrong route.
+ * <p>
+ * Nodes are ordered by the edge difference (the shortcuts contracting them
+ * would add, less the arcs it would remove), estimated by cheaper witness
+ * searches than the contraction itself runs, plus the number of their
+ * neighbors already contracted and their level in the hierarchy so far,
+ * which spread contraction evenly over the graph and keep it shallow.
+ * <p>
+ * Each round contracts every node that comes before all its remaining
+ * neighbors in this order: no two of them are adjacent, so their witness
+ * searches run in parallel, and avoid all the nodes of the round, so that
+ * no two of them take each other for witnesses.
+ * <p>
+ * Package-private; this class is an implementation detail of
+ * ContractionHierarchy.build(). A HierarchyBuilder builds a single hierarchy.
+ */
+final class HierarchyBuilder {
+
+	// the most nodes a witness search settles before giving up, when contracting a
+	// node and when only estimating its priority
+	private static final int WITNESS_SETTLE_LIMIT = 64;
+	private static final int ESTIMATE_SETTLE_LIMIT = 4;
+
+	private static final int[] NO_SHORTCUTS = new int[0];
+
+	private final RoadGraph graph;
+	private final int nodeCount;
+
+	// the remaining graph: node v is joined to neighbors[v][i] by the arc arcsOf[v][i]
+	// of length lengths[v][i], for 0 <= i < degrees[v]
+	private final int[][] neighbors;
+	private final double[][] lengths;
+	private final int[][] arcsOf;
+	private final int[] degrees;
+
+	// every arc made so far, joining arcEndA[a] and arcEndB[a]; arcFirst[a] stands for
+	// the way from A to B (an edge of the graph, or an arc from A to the via node) and
+	// arcSecond[a] for the way from B to A (or an arc from B to the via node)
+	private int arcCount = 0;
+	private int[] arcEndA;
+	private int[] arcEndB;
+	private double[] arcLengths;
+	private int[] arcVia;
+	private int[] arcFirst;
+	private int[] arcSecond;
+
+	// upwardArcs[v] are the arcs of v when it was contracted, null before; roundOf[v]
+	// is the round v was contracted in, or -1; levels[v] is 0, or 1 more than the
+	// highest level of a neighbor of v contracted before it
+	private final int[][] upwardArcs;
+	private final int[] priorities;
+	private final int[] contractedNeighbors;
+	private final int[] levels;
+	private final int[] roundOf;
+	private int round = 0;
+
+	/**
+	 * Constructs a new HierarchyBuilder.
+	 * @requires graph != null
+	 * @effects Constructs a new HierarchyBuilder whose remaining graph is graph.
+	 */
+	HierarchyBuilder(RoadGraph graph) {
+		this.graph = graph;
+		int nodeCount = graph.getNodeCount();
+		this.nodeCount = nodeCount;
+		this.neighbors = new int[nodeCount][];
+		this.lengths = new double[nodeCount][];
+		this.arcsOf = new int[nodeCount][];
+		this.degrees = new int[nodeCount];
+		int capacity = Math.max(16, graph.getSegmentCount());
+		this.arcEndA = new int[capacity];
+		this.arcEndB = new int[capacity];
+		this.arcLengths = new double[capacity];
+		this.arcVia = new int[capacity];
+		this.arcFirst = new int[capacity];
+		this.arcSecond = new int[capacity];
+		this.upwardArcs = new int[nodeCount][];
+		this.priorities = new int[nodeCount];
+		this.contractedNeighbors = new int[nodeCount];
+		this.levels = new int[nodeCount];
+		this.roundOf = new int[nodeCount];
+		Arrays.fill(this.roundOf, -1);
+
+		for (int v = 0; v < nodeCount; v++) {
+			int degree = graph.edgeBegin(v + 1) - graph.edgeBegin(v);
+			this.neighbors[v] = new int[Math.max(degree, 1)];
+			this.lengths[v] = new double[Math.max(degree, 1)];
+			this.arcsOf[v] = new int[Math.max(degree, 1)];
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			for (int e = graph.edgeBegin(v), end = graph.edgeBegin(v + 1); e < end; e++) {
+				int w = graph.edgeTarget(e);
+				if (v < w) {
+					connect(v, w, graph.edgeLength(e), ContractionHierarchy.NO_VIA, e, graph.reverseEdge(e));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Contracts all the nodes.
+	 * @modifies this
+	 * @effects contracts every node of the remaining graph.
+	 * @return the ContractionHierarchy of graph made by the contraction.
+	 */
+	ContractionHierarchy build() {
+		int[] remaining = IntStream.range(0, this.nodeCount).toArray();
+		IntStream.of(remaining).parallel().forEach(v -> this.priorities[v] = priority(v));
+		int[] touchedIn = new int[this.nodeCount];
+		while (remaining.length > 0) {
+			int current = ++this.round;
+			int[] chosen = IntStream.of(remaining).parallel().filter(this::precedesNeighbors).toArray();
+			for (int v : chosen) {
+				this.roundOf[v] = current;
+			}
+			int[][] shortcuts = new int[chosen.length][];
+			IntStream.range(0, chosen.length).parallel()
+					 .forEach(k -> shortcuts[k] = shortcutsOf(chosen[k], WITNESS_SETTLE_LIMIT));
+
+			int touchedCount = 0;
+			int[] touched = new int[chosen.length];
+			for (int k = 0; k < chosen.length; k++) {
+				int v = chosen[k];
+				for (int i = 0; i < this.degrees[v]; i++) {
+					int u = this.neighbors[v][i];
+					if (touchedIn[u] != current) {
+						touchedIn[u] = current;
+						if (touchedCount == touched.length) {
+							touched = Arrays.copyOf(touched, 2 * touchedCount);
+						}
+						touched[touchedCount++] = u;
+					}
+				}
+				contract(v, shortcuts[k]);
+			}
+			remaining = IntStream.of(remaining).filter(v -> this.roundOf[v] != current).toArray();
+			// only the neighbors of the contracted nodes have changed
+			IntStream.of(touched).limit(touchedCount).parallel().forEach(u -> this.priorities[u] = priority(u));
+		}
+		return hierarchy();
+	}
+
+	/**
+	 * Returns whether a node comes before all its remaining neighbors.
+	 * @requires 0 <= v < nodeCount && v is not contracted
+	 * @return true iff v comes before all its neighbors in the remaining graph, by
+	 *         priority, then by a hash of the node, then by node id.
+	 */
+	private boolean precedesNeighbors(int v) {
+		int priority = this.priorities[v];
+		long tie = GeoPoint.mix(v);
+		for (int i = 0; i < this.degrees[v]; i++) {
+			int u = this.neighbors[v][i];
+			int order = Integer.compare(this.priorities[u], priority);
+			if (order == 0) {
+				order = Long.compare(GeoPoint.mix(u), tie);
+			}
+			if (order < 0 || (order == 0 && u < v)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the priority of a node, the smaller the sooner it is contracted.
+	 * @requires 0 <= v < nodeCount && v is not contracted
+	 * @return an estimate of the number of shortcuts contracting v would add, less its
+	 *         degree in the remaining graph, plus the number of its neighbors already
+	 *         contracted and its level.
+	 */
+	private int priority(int v) {
+		return shortcutsOf(v, ESTIMATE_SETTLE_LIMIT).length / 2 - this.degrees[v]
+				+ this.contractedNeighbors[v] + this.levels[v];
+	}
+
+	/**
+	 * Finds the shortcuts contracting a node needs.
+	 * @requires 0 <= v < nodeCount && v is not contracted && settleLimit > 0
+	 * @return the pairs (i, j), i < j, such that no witness search settling at most
+	 *         settleLimit nodes found a route from
+	 *         neighbors[v][i] to neighbors[v][j] as short as the one through v, flattened
+	 *         into an array of 2 ints per pair.
+	 */
+	private int[] shortcutsOf(int v, int settleLimit) {
+		int degree = this.degrees[v];
+		int[] nodes = this.neighbors[v];
+		double[] lengths = this.lengths[v];
+		SearchSpace space = this.graph.searchSpaces().borrow();
+		int[] pairs = NO_SHORTCUTS;
+		int count = 0;
+		try {
+			for (int i = 0; i < degree - 1; i++) {
+				double limit = 0;
+				for (int j = i + 1; j < degree; j++) {
+					limit = Math.max(limit, lengths[i] + lengths[j]);
+				}
+				witnessSearch(nodes[i], v, nodes, i + 1, degree, limit, settleLimit, space);
+				for (int j = i + 1; j < degree; j++) {
+					if (space.distance(nodes[j]) > lengths[i] + lengths[j]) {
+						if (2 * count == pairs.length) {
+							pairs = Arrays.copyOf(pairs, Math.max(8, 2 * pairs.length));
+						}
+						pairs[2 * count] = i;
+						pairs[2 * count + 1] = j;
+						count++;
+					}
+				}
+			}
+		} finally {
+			this.graph.searchSpaces().release(space);
+		}
+		return Arrays.copyOf(pairs, 2 * count);
+	}
+
+	/**
+	 * Runs a witness search.
+	 * @requires 0 <= source, v < nodeCount && source != v && 0 <= from <= to <= targets.length
+	 * @modifies space
+	 * @effects resets space and searches the remaining graph from source, avoiding v and
+	 *          the nodes of the current round, until the search settles settleLimit nodes,
+	 *          all the nodes no farther than limit, or all of targets[from..to-1].
+	 */
+	private void witnessSearch(int source, int v, int[] targets, int from, int to, double limit,
+							   int settleLimit, SearchSpace space) {
+		space.reset();
+		NodeHeap heap = space.heap;
+		space.reach(source, 0, SearchSpace.NO_EDGE, SearchSpace.NO_EDGE);
+		heap.add(source, 0);
+		int settled = 0;
+		int unsettled = to - from;
+		while (!heap.isEmpty() && heap.peekKey() <= limit && settled < settleLimit) {
+			int x = heap.poll();
+			if (space.isSettled(x)) {
+				continue;
+			}
+			space.settle(x);
+			settled++;
+			for (int k = from; k < to; k++) {
+				if (targets[k] == x && --unsettled == 0) {
+					return;
+				}
+			}
+			double distance = space.distance(x);
+			int[] nodes = this.neighbors[x];
+			double[] lengths = this.lengths[x];
+			for (int i = 0, degree = this.degrees[x]; i < degree; i++) {
+				int y = nodes[i];
+				if (y == v || this.roundOf[y] == this.round) {
+					continue;
+				}
+				double candidate = distance + lengths[i];
+				if (candidate < space.distance(y) && !space.isSettled(y)) {
+					space.reach(y, candidate, x, SearchSpace.NO_EDGE);
+					heap.add(y, candidate);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Contracts a node.
+	 * @requires 0 <= v < nodeCount && v is not contracted &&
+	 *           pairs == shortcutsOf(v, WITNESS_SETTLE_LIMIT)
+	 * @modifies this
+	 * @effects records the arcs of v as its upward arcs, joins the pairs of its neighbors
+	 *          in pairs by shortcuts over v, and removes v from the remaining graph.
+	 */
+	private void contract(int v, int[] pairs) {
+		int degree = this.degrees[v];
+		int[] nodes = this.neighbors[v];
+		double[] lengths = this.lengths[v];
+		int[] arcs = this.arcsOf[v];
+		this.upwardArcs[v] = Arrays.copyOf(arcs, degree);
+		for (int p = 0; p < pairs.length; p += 2) {
+			int i = pairs[p], j = pairs[p + 1];
+			connect(nodes[i], nodes[j], lengths[i] + lengths[j], v, arcs[i], arcs[j]);
+		}
+		for (int i = 0; i < degree; i++) {
+			disconnect(nodes[i], v);
+			this.contractedNeighbors[nodes[i]]++;
+			this.levels[nodes[i]] = Math.max(this.levels[nodes[i]], this.levels[v] + 1);
+		}
+		this.degrees[v] = 0;
+	}
+
+	/**
+	 * Joins two nodes of the remaining graph by a new arc, unless they are joined by one
+	 * no longer.
+	 * @requires 0 <= a, b < nodeCount && a != b && a and b are not contracted
+	 * @modifies this
+	 * @effects if a and b are not joined by an arc as short as length, makes an arc of
+	 *          length length over via, standing for first from a and second from b, and
+	 *          joins a and b by it instead.
+	 */
+	private void connect(int a, int b, double length, int via, int first, int second) {
+		int i = indexOf(a, b);
+		if (i >= 0 && this.lengths[a][i] <= length) {
+			return;
+		}
+		if (this.arcCount == this.arcEndA.length) {
+			int capacity = 2 * this.arcCount;
+			this.arcEndA = Arrays.copyOf(this.arcEndA, capacity);
+			this.arcEndB = Arrays.copyOf(this.arcEndB, capacity);
+			this.arcLengths = Arrays.copyOf(this.arcLengths, capacity);
+			this.arcVia = Arrays.copyOf(this.arcVia, capacity);
+			this.arcFirst = Arrays.copyOf(this.arcFirst, capacity);
+			this.arcSecond = Arrays.copyOf(this.arcSecond, capacity);
+		}
+		int arc = this.arcCount++;
+		this.arcEndA[arc] = a;
+		this.arcEndB[arc] = b;
+		this.arcLengths[arc] = length;
+		this.arcVia[arc] = via;
+		this.arcFirst[arc] = first;
+		this.arcSecond[arc] = second;
+		setNeighbor(a, b, length, arc);
+		setNeighbor(b, a, length, arc);
+	}
+
+	/**
+	 * Returns where a node is among the neighbors of another.
+	 * @requires 0 <= v, w < nodeCount
+	 * @return the index i such that neighbors[v][i] == w, or -1 if w is not a neighbor of v.
+	 */
+	private int indexOf(int v, int w) {
+		int[] nodes = this.neighbors[v];
+		for (int i = 0, degree = this.degrees[v]; i < degree; i++) {
+			if (nodes[i] == w) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Sets the arc joining a node to a neighbor.
+	 * @requires 0 <= v, w < nodeCount
+	 * @modifies this
+	 * @effects makes arc, of length length, the arc joining v to w.
+	 */
+	private void setNeighbor(int v, int w, double length, int arc) {
+		int i = indexOf(v, w);
+		if (i < 0) {
+			i = this.degrees[v]++;
+			if (i == this.neighbors[v].length) {
+				this.neighbors[v] = Arrays.copyOf(this.neighbors[v], 2 * i);
+				this.lengths[v] = Arrays.copyOf(this.lengths[v], 2 * i);
+				this.arcsOf[v] = Arrays.copyOf(this.arcsOf[v], 2 * i);
+			}
+			this.neighbors[v][i] = w;
+		}
+		this.lengths[v][i] = length;
+		this.arcsOf[v][i] = arc;
+	}
+
+	/**
+	 * Removes a node from the neighbors of another.
+	 * @requires 0 <= v, w < nodeCount && w is a neighbor of v
+	 * @modifies this
+	 * @effects removes w from the neighbors of v.
+	 */
+	private void disconnect(int v, int w) {
+		int i = indexOf(v, w);
+		int last = --this.degrees[v];
+		this.neighbors[v][i] = this.neighbors[v][last];
+		this.lengths[v][i] = this.lengths[v][last];
+		this.arcsOf[v][i] = this.arcsOf[v][last];
+	}
+
+	/**
+	 * Lays the upward arcs of the contracted nodes out as a ContractionHierarchy.
+	 * @requires all the nodes are contracted
+	 * @return the ContractionHierarchy of graph whose upward arcs are upwardArcs, renumbered
+	 *         by source node. Arcs that were replaced by shorter ones are left out.
+	 */
+	private ContractionHierarchy hierarchy() {
+		int[] firstArc = new int[this.nodeCount + 1];
+		for (int v = 0; v < this.nodeCount; v++) {
+			firstArc[v + 1] = firstArc[v] + this.upwardArcs[v].length;
+		}
+		int count = firstArc[this.nodeCount];
+		int[] ids = new int[this.arcCount];
+		for (int v = 0; v < this.nodeCount; v++) {
+			for (int k = 0; k < this.upwardArcs[v].length; k++) {
+				ids[this.upwardArcs[v][k]] = firstArc[v] + k;
+			}
+		}
+		int[] arcTargets = new int[count];
+		double[] arcLengths = new double[count];
+		int[] arcVia = new int[count];
+		int[] arcFirst = new int[count];
+		int[] arcSecond = new int[count];
+		for (int v = 0; v < this.nodeCount; v++) {
+			for (int k = 0; k < this.upwardArcs[v].length; k++) {
+				int old = this.upwardArcs[v][k];
+				int a = firstArc[v] + k;
+				boolean fromA = this.arcEndA[old] == v;
+				arcTargets[a] = fromA ? this.arcEndB[old] : this.arcEndA[old];
+				arcLengths[a] = this.arcLengths[old];
+				arcVia[a] = this.arcVia[old];
+				int first = fromA ? this.arcFirst[old] : this.arcSecond[old];
+				int second = fromA ? this.arcSecond[old] : this.arcFirst[old];
+				boolean shortcut = arcVia[a] != ContractionHierarchy.NO_VIA;
+				arcFirst[a] = shortcut ? ids[first] : first;
+				arcSecond[a] = shortcut ? ids[second] : second;
+			}
+		}
+		return new ContractionHierarchy(this.graph, firstArc, arcTargets, arcLengths, arcVia, arcFirst, arcSecond);
+	}
+}
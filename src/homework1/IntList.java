@@ -0,0 +1,84 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * An IntList is a growable sequence of ints kept in a primitive array, for
+ * the paths and node sets the graph searches collect without boxing.
+ * <p>
+ * Package-private; this class is an implementation detail of the graph
+ * searches.
+ */
+final class IntList {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] elements = new int[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/*
+	 * Abstraction function:
+	 *     the list is elements[0], ..., elements[size-1]
+	 *
+	 * Representation invariant:
+	 *     0 <= size <= elements.length
+	 */
+
+	/**
+	 * Returns the length of this.
+	 * @return the number of elements of this.
+	 */
+	int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns an element of this.
+	 * @requires 0 <= i < size()
+	 * @return the i'th element of this.
+	 */
+	int get(int i) {
+		return this.elements[i];
+	}
+
+	/**
+	 * Appends an element to this.
+	 * @modifies this
+	 * @effects appends value to this.
+	 */
+	void add(int value) {
+		if (this.size == this.elements.length) {
+			this.elements = Arrays.copyOf(this.elements, 2 * this.size);
+		}
+		this.elements[this.size++] = value;
+	}
+
+	/**
+	 * Removes the last element of this.
+	 * @requires size() > 0
+	 * @modifies this
+	 * @effects removes the last element of this.
+	 * @return the element removed.
+	 */
+	int removeLast() {
+		return this.elements[--this.size];
+	}
+
+	/**
+	 * Removes all the elements of this.
+	 * @modifies this
+	 * @effects empties this, keeping its array for reuse.
+	 */
+	void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Returns the array holding the elements of this.
+	 * @return an array whose first size() elements are the elements of this. It is
+	 *         replaced when this grows, and must not be modified.
+	 */
+	int[] elements() {
+		return this.elements;
+	}
+}
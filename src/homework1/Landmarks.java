@@ -0,0 +1,468 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+/**
+ * Landmarks speed up shortest-route searches in a RoadGraph by the "ALT"
+ * method (A*, landmarks and the triangle inequality). Landmarks are immutable.
+ * <p>
+ * A few nodes of the graph are picked as landmarks, and the distance from
+ * each landmark to every node is computed in advance. Since the graph can
+ * be traveled both ways, the triangle inequality gives, for any landmark L,
+ * |d(L, t) - d(L, v)| <= d(v, t): a lower bound on the distance from v to
+ * the destination t, which for landmarks lying "behind" v or t is far
+ * tighter than the straight-line distance. A* guided by the larger of the
+ * two bounds finds the same routes as RoadGraph.findRoute() while settling
+ * far fewer nodes.
+ * <p>
+ * Unlike a ContractionHierarchy, Landmarks need nothing but one Dijkstra
+ * search per landmark, so a graph that changes often can cheaply get new
+ * ones: rebuild() recomputes the tables of the same landmarks for a new
+ * graph, one landmark per processor.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   graph : RoadGraph                // the graph the distances are measured in
+ *   landmarks : sequence of GeoPoint // the landmarks, distinct nodes of graph
+ * </pre>
+ */
+public class Landmarks {
+
+	/**
+	 * The ways landmarks can be picked.
+	 */
+	public enum Selection {
+		/**
+		 * Each landmark is the node farthest from the landmarks before it, so
+		 * the landmarks end up spread along the edges of the graph.
+		 */
+		FARTHEST,
+		/**
+		 * Each landmark is picked to "avoid" the others (Goldberg and Werneck):
+		 * it is the leaf of the largest region of a shortest-path tree that the
+		 * landmarks before it bound poorly.
+		 */
+		AVOID
+	}
+
+	// the number of landmarks a search uses: those giving the best bounds at its origin
+	private static final int ACTIVE_LANDMARKS = 4;
+
+	private final RoadGraph graph;
+	private final Selection selection;
+	private final int[] landmarks;
+
+	// the distance from landmarks[l] to node v is distances[v * landmarks.length + l],
+	// so that the bounds of a node are read from a single run of memory
+	private final double[] distances;
+
+	/*
+	 * Abstraction function:
+	 *     graph = this.graph
+	 *     landmarks[l] = graph.getNode(this.landmarks[l]) for 0 <= l < this.landmarks.length
+	 *
+	 * Representation invariant:
+	 *     the elements of landmarks are distinct ids of nodes of graph &&
+	 *     distances.length == graph.getNodeCount() * landmarks.length &&
+	 *     foreach l, v => distances[v * landmarks.length + l] is the length of a shortest
+	 *     route from landmarks[l] to v, or +infinity if there is none
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function. Only the O(landmarks) part of the invariant is checked.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.distances.length == this.graph.getNodeCount() * this.landmarks.length);
+		for (int l = 0; l < this.landmarks.length; l++) {
+			assert(this.distances[this.landmarks[l] * this.landmarks.length + l] == 0);
+		}
+	}
+
+	/**
+	 * Constructs new Landmarks.
+	 * <p>
+	 * Each landmark is picked with the distances to the landmarks before it in
+	 * hand, so picking them takes one or two Dijkstra searches per landmark,
+	 * one after the other.
+	 * @requires graph != null && 0 < count <= graph.getNodeCount() && selection != null
+	 * @effects Constructs new Landmarks of count nodes of graph, picked by selection.
+	 */
+	public Landmarks(RoadGraph graph, int count, Selection selection) {
+		this.graph = graph;
+		this.selection = selection;
+		this.landmarks = new int[count];
+		this.distances = new double[graph.getNodeCount() * count];
+		Random random = new Random(graph.getNodeCount());
+		for (int l = 0; l < count; l++) {
+			this.landmarks[l] = select(l, random);
+			store(l, measure(l));
+		}
+		checkRep();
+	}
+
+	/**
+	 * Constructs new Landmarks with given landmark nodes.
+	 * @requires the elements of landmarks are distinct ids of nodes of graph
+	 * @effects Constructs new Landmarks of graph at landmarks, computing their
+	 *          distance tables in parallel.
+	 */
+	private Landmarks(RoadGraph graph, Selection selection, int[] landmarks) {
+		this.graph = graph;
+		this.selection = selection;
+		this.landmarks = landmarks;
+		this.distances = new double[graph.getNodeCount() * landmarks.length];
+		// each task measures into its own column, since tasks writing the interleaved
+		// table directly would share every cache line of it; the columns are interleaved
+		// in one pass once they are all measured
+		double[][] columns = IntStream.range(0, landmarks.length).parallel()
+				.mapToObj(this::measure).toArray(double[][]::new);
+		int count = landmarks.length;
+		for (int v = 0, nodeCount = graph.getNodeCount(); v < nodeCount; v++) {
+			for (int l = 0; l < count; l++) {
+				this.distances[v * count + l] = columns[l][v];
+			}
+		}
+		checkRep();
+	}
+
+	/**
+	 * Returns Landmarks for a changed graph.
+	 * <p>
+	 * The landmarks that are still nodes of the new graph are kept, so no
+	 * selection needs to run again, and their distance tables are computed
+	 * in parallel, one landmark per processor. Landmarks that are gone are
+	 * left out.
+	 * @requires graph != null
+	 * @return new Landmarks of graph, at the elements of landmarks that are nodes of
+	 *         graph, or null if none are.
+	 */
+	public Landmarks rebuild(RoadGraph graph) {
+		int[] kept = new int[this.landmarks.length];
+		int count = 0;
+		for (int l = 0; l < this.landmarks.length; l++) {
+			int id = graph.getNodeId(getLandmark(l));
+			if (id >= 0) {
+				kept[count++] = id;
+			}
+		}
+		return count == 0 ? null : new Landmarks(graph, this.selection, Arrays.copyOf(kept, count));
+	}
+
+	/**
+	 * Returns the graph of this.
+	 * @return graph
+	 */
+	public RoadGraph getGraph() {
+		return this.graph;
+	}
+
+	/**
+	 * Returns the number of landmarks.
+	 * @return |landmarks|
+	 */
+	public int getCount() {
+		return this.landmarks.length;
+	}
+
+	/**
+	 * Returns a landmark.
+	 * @requires 0 <= l < getCount()
+	 * @return landmarks[l]
+	 */
+	public GeoPoint getLandmark(int l) {
+		return this.graph.getNode(this.landmarks[l]);
+	}
+
+	/**
+	 * Returns a lower bound on the distance between two points.
+	 * @requires from != null && to != null && from and to are nodes of graph
+	 * @return the largest of the landmark bounds and from.distanceTo(to), which is at most
+	 *         the length of a shortest route from from to to over graph.
+	 */
+	public double getLowerBound(GeoPoint from, GeoPoint to) {
+		return lowerBound(this.graph.getNodeId(from), this.graph.getNodeId(to), allLandmarks());
+	}
+
+	/**
+	 * Finds a shortest route between two points.
+	 * <p>
+	 * The search is A*, guided by the landmark bounds of the few landmarks
+	 * that bound the distance between from and to best, or by the
+	 * straight-line distance where it is larger.
+	 * @requires from != null && to != null
+	 * @return a Route r of minimal length such that r.start = from && r.end = to,
+	 *         made of segments and reversed segments of graph, or null if from or to
+	 *         is not a node of graph, if from equals to, or if to cannot be reached
+	 *         from from.
+	 */
+	public Route findRoute(GeoPoint from, GeoPoint to) {
+		int source = this.graph.getNodeId(from);
+		int target = this.graph.getNodeId(to);
+		if (source < 0 || target < 0 || source == target) {
+			return null;
+		}
+		int[] active = activeLandmarks(source, target);
+		SearchSpace space = this.graph.searchSpaces().borrow();
+		try {
+			if (!this.graph.search(source, target, v -> lowerBound(v, target, active), space)) {
+				return null;
+			}
+			return this.graph.routeTo(space, target);
+		} finally {
+			this.graph.searchSpaces().release(space);
+		}
+	}
+
+	/**
+	 * Returns a lower bound on the distance between two nodes.
+	 * @requires 0 <= v, target < graph.getNodeCount() && active holds indices of landmarks
+	 * @return the largest of the bounds the landmarks in active give on the distance from v
+	 *         to target and the straight-line distance between them.
+	 */
+	double lowerBound(int v, int target, int[] active) {
+		double bound = this.graph.nodes().distance(v, target);
+		for (int l : active) {
+			bound = Math.max(bound, landmarkBound(v, target, l));
+		}
+		return bound;
+	}
+
+	/**
+	 * Returns the lower bound a landmark gives on the distance between two nodes.
+	 * @requires 0 <= v, target < graph.getNodeCount() && 0 <= l < getCount()
+	 * @return |d(landmarks[l], target) - d(landmarks[l], v)|, or 0 if landmarks[l] cannot
+	 *         reach one of them.
+	 */
+	private double landmarkBound(int v, int target, int l) {
+		int count = this.landmarks.length;
+		double toV = this.distances[v * count + l];
+		double toTarget = this.distances[target * count + l];
+		// a landmark in another part of a disconnected graph bounds nothing
+		if (toV == Double.POSITIVE_INFINITY || toTarget == Double.POSITIVE_INFINITY) {
+			return 0;
+		}
+		return Math.abs(toTarget - toV);
+	}
+
+	/**
+	 * Returns the landmarks that bound the distance between two nodes best.
+	 * @requires 0 <= source, target < graph.getNodeCount()
+	 * @return the indices of the ACTIVE_LANDMARKS landmarks (or all of them, if there
+	 *         are fewer) giving the largest bounds on the distance from source to target.
+	 */
+	private int[] activeLandmarks(int source, int target) {
+		int count = this.landmarks.length;
+		if (count <= ACTIVE_LANDMARKS) {
+			return allLandmarks();
+		}
+		int[] active = new int[ACTIVE_LANDMARKS];
+		double[] bounds = new double[ACTIVE_LANDMARKS];
+		Arrays.fill(bounds, -1);
+		for (int l = 0; l < count; l++) {
+			double bound = landmarkBound(source, target, l);
+			// insert l among the best bounds so far, kept in decreasing order
+			int i = ACTIVE_LANDMARKS;
+			while (i > 0 && bounds[i - 1] < bound) {
+				if (i < ACTIVE_LANDMARKS) {
+					bounds[i] = bounds[i - 1];
+					active[i] = active[i - 1];
+				}
+				i--;
+			}
+			if (i < ACTIVE_LANDMARKS) {
+				bounds[i] = bound;
+				active[i] = l;
+			}
+		}
+		return active;
+	}
+
+	/**
+	 * Returns the indices of all the landmarks.
+	 * @return the array 0, 1, ..., getCount()-1.
+	 */
+	private int[] allLandmarks() {
+		return IntStream.range(0, this.landmarks.length).toArray();
+	}
+
+	/**
+	 * Computes the distance table of a landmark.
+	 * @requires 0 <= l < landmarks.length
+	 * @return an array whose v'th element is the distance from landmarks[l] to node v
+	 *         of graph.
+	 */
+	private double[] measure(int l) {
+		int nodeCount = this.graph.getNodeCount();
+		double[] column = new double[nodeCount];
+		SearchSpace space = this.graph.searchSpaces().borrow();
+		try {
+			this.graph.search(this.landmarks[l], -1, v -> 0, space);
+			for (int v = 0; v < nodeCount; v++) {
+				column[v] = space.distance(v);
+			}
+		} finally {
+			this.graph.searchSpaces().release(space);
+		}
+		return column;
+	}
+
+	/**
+	 * Stores the distance table of a landmark.
+	 * @requires 0 <= l < landmarks.length && column.length == graph.getNodeCount()
+	 * @modifies this.distances
+	 * @effects sets the distance from landmarks[l] to each node v of graph to column[v].
+	 */
+	private void store(int l, double[] column) {
+		int count = this.landmarks.length;
+		for (int v = 0; v < column.length; v++) {
+			this.distances[v * count + l] = column[v];
+		}
+	}
+
+	/**
+	 * Picks a landmark.
+	 * @requires 0 <= l < landmarks.length && the tables of landmarks[0..l-1] are measured
+	 * @return the id of the node selection picks to be landmarks[l], given landmarks[0..l-1].
+	 */
+	private int select(int l, Random random) {
+		if (this.selection == Selection.AVOID && l > 0) {
+			int avoiding = selectAvoiding(l, random);
+			if (avoiding >= 0) {
+				return avoiding;
+			}
+		}
+		return selectFarthest(l, random);
+	}
+
+	/**
+	 * Picks a landmark far from the others.
+	 * @requires 0 <= l < landmarks.length && the tables of landmarks[0..l-1] are measured
+	 * @return the node whose distance to the nearest of landmarks[0..l-1] is largest,
+	 *         counting nodes they cannot reach as infinitely far; for l == 0, the node
+	 *         farthest from a node picked at random.
+	 */
+	private int selectFarthest(int l, Random random) {
+		int nodeCount = this.graph.getNodeCount();
+		int count = this.landmarks.length;
+		double[] nearest = new double[nodeCount];
+		if (l == 0) {
+			SearchSpace space = this.graph.searchSpaces().borrow();
+			try {
+				this.graph.search(random.nextInt(nodeCount), -1, v -> 0, space);
+				for (int v = 0; v < nodeCount; v++) {
+					// unreached nodes are left for the next landmarks, in their own parts of the graph
+					nearest[v] = space.isReached(v) ? space.distance(v) : -1;
+				}
+			} finally {
+				this.graph.searchSpaces().release(space);
+			}
+		} else {
+			for (int v = 0; v < nodeCount; v++) {
+				double min = Double.POSITIVE_INFINITY;
+				for (int k = 0; k < l; k++) {
+					min = Math.min(min, this.distances[v * count + k]);
+				}
+				nearest[v] = min;
+			}
+		}
+		int best = 0;
+		for (int v = 1; v < nodeCount; v++) {
+			if (nearest[v] > nearest[best]) {
+				best = v;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Picks a landmark avoiding the others.
+	 * <p>
+	 * A shortest-path tree is grown from a node picked at random, and each
+	 * node weighed by how much the distance to it from the root exceeds the
+	 * landmark bound on that distance. Among the subtrees holding no landmark,
+	 * the heaviest one is followed down, always into its heaviest child, to a
+	 * leaf, which becomes the landmark.
+	 * @requires 0 < l < landmarks.length && the tables of landmarks[0..l-1] are measured
+	 * @return the leaf picked, or -1 if the landmarks bound every distance from the root
+	 *         exactly.
+	 */
+	private int selectAvoiding(int l, Random random) {
+		int nodeCount = this.graph.getNodeCount();
+		int root = random.nextInt(nodeCount);
+		SearchSpace space = this.graph.searchSpaces().borrow();
+		try {
+			this.graph.search(root, -1, v -> 0, space);
+			int[] chosen = IntStream.range(0, l).toArray();
+
+			// lay the children of each reached node out contiguously, and order the tree root first
+			int[] firstChild = new int[nodeCount + 1];
+			for (int v = 0; v < nodeCount; v++) {
+				if (space.isReached(v) && v != root) {
+					firstChild[space.parentNode(v) + 1]++;
+				}
+			}
+			for (int v = 0; v < nodeCount; v++) {
+				firstChild[v + 1] += firstChild[v];
+			}
+			int[] children = new int[firstChild[nodeCount]];
+			int[] next = Arrays.copyOf(firstChild, nodeCount);
+			for (int v = 0; v < nodeCount; v++) {
+				if (space.isReached(v) && v != root) {
+					children[next[space.parentNode(v)]++] = v;
+				}
+			}
+			int[] order = new int[children.length + 1];
+			order[0] = root;
+			for (int i = 0, size = 1; i < size; i++) {
+				int v = order[i];
+				for (int c = firstChild[v]; c < firstChild[v + 1]; c++) {
+					order[size++] = children[c];
+				}
+			}
+
+			// weigh the subtrees, children before parents
+			double[] sizes = new double[nodeCount];
+			boolean[] holdsLandmark = new boolean[nodeCount];
+			for (int k = 0; k < l; k++) {
+				holdsLandmark[this.landmarks[k]] = true;
+			}
+			for (int i = order.length - 1; i >= 0; i--) {
+				int v = order[i];
+				double size = space.distance(v) - lowerBound(root, v, chosen);
+				for (int c = firstChild[v]; c < firstChild[v + 1]; c++) {
+					size += sizes[children[c]];
+					holdsLandmark[v] |= holdsLandmark[children[c]];
+				}
+				sizes[v] = holdsLandmark[v] ? 0 : size;
+			}
+			int heaviest = root;
+			for (int v : order) {
+				if (sizes[v] > sizes[heaviest]) {
+					heaviest = v;
+				}
+			}
+			if (sizes[heaviest] <= 0) {
+				return -1;
+			}
+			int leaf = heaviest;
+			while (firstChild[leaf] < firstChild[leaf + 1]) {
+				int child = children[firstChild[leaf]];
+				for (int c = firstChild[leaf] + 1; c < firstChild[leaf + 1]; c++) {
+					if (sizes[children[c]] > sizes[child]) {
+						child = children[c];
+					}
+				}
+				leaf = child;
+			}
+			return leaf;
+		} finally {
+			this.graph.searchSpaces().release(space);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+package homework1;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A LineTemplate describes the text of a single line of directions. It is
+ * parsed once, when it is compiled, and can then render any number of
+ * lines without parsing a format string or creating temporary Strings.
+ * <p>
+ * A template is plain text with the following placeholders:
+ * <pre>
+ *   {turn}      // the turn to take, e.g. "Turn slight right" (see RouteFormatter.getTurnString())
+ *   {name}      // name of the geographic feature
+ *   {km}        // length of the geographic feature, in kilometers, to tenth-of-a-kilometer precision
+ *   {minutes}   // time to walk along the geographic feature, to the nearest minute,
+ *               // at WalkingRouteFormatter.MINUTES_PER_KILOMETER
+ * </pre>
+ * For example, the lines of DrivingRouteFormatter are rendered by the
+ * template <tt>"{turn} onto {name} and go {km} kilometers.\n"</tt>.
+ * <p>
+ * LineTemplates are immutable and may be shared between threads.
+ */
+public final class LineTemplate {
+
+	/**
+	 * The values that a placeholder of a template can stand for.
+	 */
+	private enum Field {
+		TURN("{turn}"),
+		NAME("{name}"),
+		KILOMETERS("{km}"),
+		MINUTES("{minutes}");
+
+		private final String placeholder;
+
+		Field(String placeholder) {
+			this.placeholder = placeholder;
+		}
+	}
+
+	// appendTenths() rounds value * 10 directly unless it is within TIE_MARGIN of a tie
+	// between two tenths, far more than the error of the multiplication, or is at least
+	// TIE_LIMIT, beyond which doubles keep too few fraction digits to tell
+	private static final double TIE_MARGIN = 1e-6;
+	private static final double TIE_LIMIT = 1e9;
+
+	private final String pattern;
+	private final String[] literals;
+	private final Field[] fields;
+
+	/*
+	 * Abstraction function:
+	 *     a LineTemplate renders literals[0] field[0] literals[1] field[1] ... field[n-1] literals[n]
+	 *     where n = fields.length, and pattern is the text it was compiled from.
+	 *
+	 * Representation invariant:
+	 *     literals.length == fields.length + 1 && no element of literals or fields is null
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.literals.length == this.fields.length + 1);
+	}
+
+	/**
+	 * Constructs a new LineTemplate.
+	 * @requires literals.size() == fields.size() + 1
+	 * @effects Constructs a new LineTemplate rendering the given literals
+	 *          and fields in turn.
+	 */
+	private LineTemplate(String pattern, List<String> literals, List<Field> fields) {
+		this.pattern = pattern;
+		this.literals = literals.toArray(new String[0]);
+		this.fields = fields.toArray(new Field[0]);
+		checkRep();
+	}
+
+	/**
+	 * Parses a template.
+	 * @requires pattern != null
+	 * @return a LineTemplate rendering pattern, as described in the class
+	 *         documentation.
+	 * @throws IllegalArgumentException if pattern contains a '{' that does
+	 *         not start one of the placeholders.
+	 */
+	public static LineTemplate compile(String pattern) {
+		List<String> literals = new ArrayList<String>();
+		List<Field> fields = new ArrayList<Field>();
+
+		int literalStart = 0;
+		int i = pattern.indexOf('{');
+		while (i >= 0) {
+			Field field = null;
+			for (Field candidate : Field.values()) {
+				if (pattern.startsWith(candidate.placeholder, i)) {
+					field = candidate;
+					break;
+				}
+			}
+			if (field == null) {
+				throw new IllegalArgumentException("unknown placeholder at index " + i + " of \"" + pattern + "\"");
+			}
+			literals.add(pattern.substring(literalStart, i));
+			fields.add(field);
+			literalStart = i + field.placeholder.length();
+			i = pattern.indexOf('{', literalStart);
+		}
+		literals.add(pattern.substring(literalStart));
+
+		return new LineTemplate(pattern, literals, fields);
+	}
+
+	/**
+	 * Renders a line of this template.
+	 * @requires turn != null && name != null && length >= 0 && out != null
+	 * @param turn the directions for the turn onto the geographic feature.
+	 * @param name the name of the geographic feature.
+	 * @param length the length of the geographic feature, in kilometers.
+	 * @param out the sink the line is appended to.
+	 * @modifies out
+	 * @effects appends to out the text of this with its placeholders
+	 *          replaced by the given values.
+	 * @throws IOException if out throws it.
+	 */
+	public void render(String turn, String name, double length, Appendable out) throws IOException {
+		out.append(this.literals[0]);
+		for (int i = 0; i < this.fields.length; i++) {
+			switch (this.fields[i]) {
+			case TURN:
+				out.append(turn);
+				break;
+			case NAME:
+				out.append(name);
+				break;
+			case KILOMETERS:
+				appendTenths(length, out);
+				break;
+			case MINUTES:
+				appendWhole(Math.round(WalkingRouteFormatter.MINUTES_PER_KILOMETER * length), out);
+				break;
+			}
+			out.append(this.literals[i + 1]);
+		}
+	}
+
+	/**
+	 * Writes a non-negative number rounded to one decimal digit.
+	 * @requires value >= 0 && out != null
+	 * @modifies out
+	 * @effects appends to out the same text as String.format("%.1f", value)
+	 *          in a locale whose decimal separator is '.'.
+	 * @throws IOException if out throws it.
+	 */
+	static void appendTenths(double value, Appendable out) throws IOException {
+		// value * 10 is rounded once already, so when it lands near a tie between two
+		// tenths, or is too large to keep a fraction, the decimal value String.format
+		// rounds is rounded instead
+		double scaled = value * 10;
+		long tenths;
+		if (scaled < TIE_LIMIT && Math.abs(scaled - Math.floor(scaled) - 0.5) > TIE_MARGIN) {
+			tenths = Math.round(scaled);
+		} else {
+			tenths = BigDecimal.valueOf(value).setScale(1, RoundingMode.HALF_UP).unscaledValue().longValue();
+		}
+		appendWhole(tenths / 10, out);
+		out.append('.');
+		out.append((char) ('0' + tenths % 10));
+	}
+
+	/**
+	 * Writes a non-negative whole number.
+	 * @requires value >= 0 && out != null
+	 * @modifies out
+	 * @effects appends to out the decimal digits of value.
+	 * @throws IOException if out throws it.
+	 */
+	static void appendWhole(long value, Appendable out) throws IOException {
+		// find the place value of the leading digit, then write the digits from the left
+		long place = 1;
+		while (place <= value / 10) {
+			place *= 10;
+		}
+		for (; place > 0; place /= 10) {
+			out.append((char) ('0' + value / place % 10));
+		}
+	}
+
+	/**
+	 * Returns the text this template was compiled from.
+	 * @return the text this template was compiled from.
+	 */
+	public String toString() {
+		return this.pattern;
+	}
+}
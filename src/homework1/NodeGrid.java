@@ -0,0 +1,187 @@
+package homework1;
+
+/**
+ * A NodeGrid is a spatial index of the nodes of a graph, for finding the
+ * node nearest to a point without measuring the distance to every node.
+ * <p>
+ * The bounding box of the nodes is cut into a grid of cells, about square
+ * on the ground and holding two nodes each on average, and the ids of the
+ * nodes are sorted by cell. A query measures the nodes of the cell of the
+ * point, then of rings of cells further and further around it, and stops
+ * as soon as the next ring is farther than the nearest node found, which
+ * for points among the nodes takes a few cells whatever the graph size.
+ * <p>
+ * Distances are those of GeoPoint.distanceTo(). NodeGrids are immutable.
+ * <p>
+ * Package-private; this class is an implementation detail of RoadGraph.
+ */
+final class NodeGrid {
+
+	/** The average number of nodes the cells are sized for. */
+	private static final int NODES_PER_CELL = 2;
+
+	private final int[] latitudes;
+	private final int[] longitudes;
+
+	private final int minLatitude;
+	private final int minLongitude;
+	private final int cellLatitude;
+	private final int cellLongitude;
+	private final int rows;
+	private final int columns;
+
+	// the shorter side of a cell, in kilometers
+	private final double cellKm;
+
+	// The nodes of the cell (row, column) are cellNodes[cellStart[c]], ...,
+	// cellNodes[cellStart[c+1]-1], where c = row * columns + column
+	private final int[] cellStart;
+	private final int[] cellNodes;
+
+	/*
+	 * Abstraction function:
+	 *     node v is the point (latitudes[v], longitudes[v]), for 0 <= v < cellNodes.length.
+	 *     The cell (row, column) covers the latitudes minLatitude + row * cellLatitude, ...,
+	 *     minLatitude + (row+1) * cellLatitude - 1, and likewise the longitudes.
+	 *
+	 * Representation invariant:
+	 *     rows >= 1 && columns >= 1 && cellLatitude >= 1 && cellLongitude >= 1 &&
+	 *     cellStart.length == rows * columns + 1 && cellStart[0] == 0 && cellStart is
+	 *     nondecreasing && cellStart[rows * columns] == cellNodes.length &&
+	 *     cellNodes is a permutation of 0..(cellNodes.length-1) in which every node is among
+	 *     the nodes of the cell covering it
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function. Only the O(1) part of the invariant is checked.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.rows >= 1 && this.columns >= 1);
+		assert(this.cellLatitude >= 1 && this.cellLongitude >= 1);
+		assert(this.cellStart.length == this.rows * this.columns + 1);
+		assert(this.cellStart[0] == 0 && this.cellStart[this.rows * this.columns] == this.cellNodes.length);
+	}
+
+	/**
+	 * Constructs a new NodeGrid.
+	 * @requires nodes != null && nodes.size() > 0 && nodes is not modified afterwards
+	 * @effects Constructs a new NodeGrid of the points of nodes, the id of
+	 *          nodes.points[i] being i.
+	 */
+	NodeGrid(PointBuffer nodes) {
+		int nodeCount = nodes.size();
+		this.latitudes = nodes.latitudes();
+		this.longitudes = nodes.longitudes();
+		int minLatitude = Integer.MAX_VALUE, maxLatitude = Integer.MIN_VALUE;
+		int minLongitude = Integer.MAX_VALUE, maxLongitude = Integer.MIN_VALUE;
+		for (int v = 0; v < nodeCount; v++) {
+			minLatitude = Math.min(minLatitude, this.latitudes[v]);
+			maxLatitude = Math.max(maxLatitude, this.latitudes[v]);
+			minLongitude = Math.min(minLongitude, this.longitudes[v]);
+			maxLongitude = Math.max(maxLongitude, this.longitudes[v]);
+		}
+		this.minLatitude = minLatitude;
+		this.minLongitude = minLongitude;
+
+		// size the cells so they are about square and hold NODES_PER_CELL nodes on average
+		double height = (maxLatitude - minLatitude + 1) / 1000000.0 * GeoPoint.KM_PER_DEGREE_LATITUDE;
+		double width = (maxLongitude - minLongitude + 1) / 1000000.0 * GeoPoint.KM_PER_DEGREE_LONGITUDE;
+		int cells = Math.max(1, nodeCount / NODES_PER_CELL);
+		double side = Math.max(Math.sqrt(height * width / cells), Math.max(height, width) / cells);
+		this.rows = (int) Math.min(cells, Math.max(1, Math.round(height / side)));
+		this.columns = (int) Math.min(cells, Math.max(1, Math.round(width / side)));
+		this.cellLatitude = (maxLatitude - minLatitude) / this.rows + 1;
+		this.cellLongitude = (maxLongitude - minLongitude) / this.columns + 1;
+		this.cellKm = Math.min(this.cellLatitude / 1000000.0 * GeoPoint.KM_PER_DEGREE_LATITUDE,
+				               this.cellLongitude / 1000000.0 * GeoPoint.KM_PER_DEGREE_LONGITUDE);
+
+		// sort the nodes by cell: count, then fill
+		int[] nodeCells = new int[nodeCount];
+		this.cellStart = new int[this.rows * this.columns + 1];
+		for (int v = 0; v < nodeCount; v++) {
+			nodeCells[v] = row(this.latitudes[v]) * this.columns + column(this.longitudes[v]);
+			this.cellStart[nodeCells[v] + 1]++;
+		}
+		for (int c = 0; c < this.rows * this.columns; c++) {
+			this.cellStart[c + 1] += this.cellStart[c];
+		}
+		this.cellNodes = new int[nodeCount];
+		int[] next = new int[this.rows * this.columns];
+		System.arraycopy(this.cellStart, 0, next, 0, next.length);
+		for (int v = 0; v < nodeCount; v++) {
+			this.cellNodes[next[nodeCells[v]]++] = v;
+		}
+		checkRep();
+	}
+
+	/**
+	 * Returns the row of the cells covering a latitude.
+	 * @return the row of the cells covering latitude, or the nearest row if
+	 *         latitude is outside the grid.
+	 */
+	private int row(int latitude) {
+		long row = ((long) latitude - this.minLatitude) / this.cellLatitude;
+		return (int) Math.max(0, Math.min(this.rows - 1, row));
+	}
+
+	/**
+	 * Returns the column of the cells covering a longitude.
+	 * @return the column of the cells covering longitude, or the nearest
+	 *         column if longitude is outside the grid.
+	 */
+	private int column(int longitude) {
+		long column = ((long) longitude - this.minLongitude) / this.cellLongitude;
+		return (int) Math.max(0, Math.min(this.columns - 1, column));
+	}
+
+	/**
+	 * Returns the node nearest to a point.
+	 * <p>
+	 * Every node of a cell r rings away from the cell of the point is at
+	 * least (r-1) cell sides away from the point, even when the point is
+	 * outside the grid, so once the nearest node found is within r cell
+	 * sides no further ring can hold a nearer one.
+	 * @requires gp != null
+	 * @return the id of the node at the smallest distance from gp, the
+	 *         smallest such id if there are several.
+	 */
+	int nearest(GeoPoint gp) {
+		int latitude = gp.getLatitude();
+		int longitude = gp.getLongitude();
+		int row = row(latitude);
+		int column = column(longitude);
+		int maxRing = Math.max(Math.max(row, this.rows - 1 - row), Math.max(column, this.columns - 1 - column));
+
+		int nearest = -1;
+		double nearestDistance = Double.POSITIVE_INFINITY;
+		for (int ring = 0; ring <= maxRing && nearestDistance > (ring - 1) * this.cellKm; ring++) {
+			int top = Math.max(0, row - ring), bottom = Math.min(this.rows - 1, row + ring);
+			int left = Math.max(0, column - ring), right = Math.min(this.columns - 1, column + ring);
+			for (int r = top; r <= bottom; r++) {
+				// the cells of the ring in row r: all of them on its top and bottom rows,
+				// and its left and right ends on the rows between
+				boolean edge = r == row - ring || r == row + ring;
+				int step = edge ? 1 : 2 * ring;
+				for (int c = edge ? left : column - ring; c <= right; c += Math.max(1, step)) {
+					if (c < 0) {
+						continue;
+					}
+					int cell = r * this.columns + c;
+					for (int i = this.cellStart[cell]; i < this.cellStart[cell + 1]; i++) {
+						int v = this.cellNodes[i];
+						double distance = GeoPoint.distance(latitude, longitude, this.latitudes[v], this.longitudes[v]);
+						if (distance < nearestDistance || (distance == nearestDistance && v < nearest)) {
+							nearest = v;
+							nearestDistance = distance;
+						}
+					}
+				}
+			}
+		}
+		return nearest;
+	}
+}
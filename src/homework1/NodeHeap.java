@@ -0,0 +1,113 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A NodeHeap is a priority queue of graph nodes, keyed by doubles, kept in
+ * two parallel primitive arrays as a binary min-heap.
+ * <p>
+ * There is no decrease-key operation: a search that finds a shorter
+ * distance to a node simply adds the node again, and skips the stale
+ * entries when it takes them out. This keeps the heap free of per-node
+ * state, so that one heap can serve any number of graphs and searches.
+ * <p>
+ * Package-private; this class is an implementation detail of the graph
+ * searches.
+ */
+final class NodeHeap {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private int[] nodes = new int[INITIAL_CAPACITY];
+	private double[] keys = new double[INITIAL_CAPACITY];
+	private int size = 0;
+
+	/*
+	 * Abstraction function:
+	 *     the heap holds the entries (nodes[i], keys[i]) for 0 <= i < size
+	 *
+	 * Representation invariant:
+	 *     nodes.length == keys.length && 0 <= size <= nodes.length &&
+	 *     foreach i in 1..(size-1) => keys[(i-1)/2] <= keys[i]
+	 */
+
+	/**
+	 * Returns whether this is empty.
+	 * @return true iff this holds no entries.
+	 */
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Removes all the entries of this.
+	 * @modifies this
+	 * @effects empties this, keeping its arrays for reuse.
+	 */
+	void clear() {
+		this.size = 0;
+	}
+
+	/**
+	 * Adds an entry to this.
+	 * @modifies this
+	 * @effects adds the entry (node, key) to this.
+	 */
+	void add(int node, double key) {
+		if (this.size == this.nodes.length) {
+			this.nodes = Arrays.copyOf(this.nodes, 2 * this.size);
+			this.keys = Arrays.copyOf(this.keys, 2 * this.size);
+		}
+		int i = this.size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (this.keys[parent] <= key) {
+				break;
+			}
+			this.nodes[i] = this.nodes[parent];
+			this.keys[i] = this.keys[parent];
+			i = parent;
+		}
+		this.nodes[i] = node;
+		this.keys[i] = key;
+	}
+
+	/**
+	 * Returns the smallest key of this.
+	 * @requires !isEmpty()
+	 * @return the smallest key of the entries of this.
+	 */
+	double peekKey() {
+		return this.keys[0];
+	}
+
+	/**
+	 * Removes the entry with the smallest key from this.
+	 * @requires !isEmpty()
+	 * @modifies this
+	 * @effects removes an entry with the smallest key from this.
+	 * @return the node of the removed entry.
+	 */
+	int poll() {
+		int top = this.nodes[0];
+		int lastNode = this.nodes[--this.size];
+		double lastKey = this.keys[this.size];
+		int i = 0;
+		int half = this.size >>> 1;
+		while (i < half) {
+			int child = 2 * i + 1;
+			if (child + 1 < this.size && this.keys[child + 1] < this.keys[child]) {
+				child++;
+			}
+			if (lastKey <= this.keys[child]) {
+				break;
+			}
+			this.nodes[i] = this.nodes[child];
+			this.keys[i] = this.keys[child];
+			i = child;
+		}
+		this.nodes[i] = lastNode;
+		this.keys[i] = lastKey;
+		return top;
+	}
+}
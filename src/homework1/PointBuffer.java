@@ -0,0 +1,267 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A PointBuffer is a growable sequence of points on the earth, stored as
+ * two packed arrays of latitudes and longitudes rather than as GeoPoint
+ * objects.
+ * <p>
+ * A million GeoPoints cost a million object headers and references, and a
+ * loop over them follows a reference per point. A PointBuffer costs 8 bytes
+ * per point and its bulk operations run directly over the arrays. The
+ * coordinates are in millionths of degrees. Distances and headings between
+ * two points are computed exactly as GeoPoint.distanceTo() and
+ * GeoPoint.headingTo() do, using the same "flat earth" approximation; the
+ * bulk operations are those of GeoKernels, applied to the arrays of this.
+ * <p>
+ * Unlike GeoPoints, PointBuffers are mutable: points can be appended to
+ * them. A PointBuffer must not be modified by one thread while another
+ * thread uses it.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   points : sequence of GeoPoint   // the points of the buffer, in the order they were added
+ *   size : integer                  // number of points
+ * </pre>
+ */
+public final class PointBuffer {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private int[] latitudes;
+	private int[] longitudes;
+	private int size;
+
+	/*
+	 * Abstraction function:
+	 *     points[i] = (latitudes[i], longitudes[i]) for 0 <= i < size
+	 *
+	 * Representation invariant:
+	 *     latitudes.length == longitudes.length && 0 <= size <= latitudes.length &&
+	 *     foreach i in 0..(size-1) => (latitudes[i], longitudes[i]) is a valid GeoPoint
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.latitudes.length == this.longitudes.length);
+		assert(this.size >= 0 && this.size <= this.latitudes.length);
+	}
+
+	/**
+	 * Constructs a new PointBuffer.
+	 * @effects Constructs a new, empty PointBuffer.
+	 */
+	public PointBuffer() {
+		this(INITIAL_CAPACITY);
+	}
+
+	/**
+	 * Constructs a new PointBuffer.
+	 * @requires capacity >= 0
+	 * @effects Constructs a new, empty PointBuffer with room for capacity
+	 *          points before it has to grow.
+	 */
+	public PointBuffer(int capacity) {
+		this.latitudes = new int[capacity];
+		this.longitudes = new int[capacity];
+		this.size = 0;
+		checkRep();
+	}
+
+	/**
+	 * Returns the number of points in this.
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Appends a point to this.
+	 * @requires gp != null
+	 * @modifies this
+	 * @effects appends gp to the end of points.
+	 */
+	public void add(GeoPoint gp) {
+		add(gp.getLatitude(), gp.getLongitude());
+	}
+
+	/**
+	 * Appends a point to this.
+	 * @requires (latitude, longitude) is a valid GeoPoint, in millionths of degrees
+	 * @modifies this
+	 * @effects appends the point (latitude, longitude) to the end of points.
+	 */
+	public void add(int latitude, int longitude) {
+		ensureCapacity(this.size + 1);
+		this.latitudes[this.size] = latitude;
+		this.longitudes[this.size] = longitude;
+		this.size++;
+		checkRep();
+	}
+
+	/**
+	 * Appends many points to this.
+	 * @requires latitudes != null && longitudes != null &&
+	 *           0 <= from && from + count <= latitudes.length && from + count <= longitudes.length &&
+	 *           each (latitudes[i], longitudes[i]) is a valid GeoPoint, in millionths of degrees
+	 * @modifies this
+	 * @effects appends the points (latitudes[i], longitudes[i]) for
+	 *          from <= i < from + count, in order, to the end of points.
+	 */
+	public void addAll(int[] latitudes, int[] longitudes, int from, int count) {
+		ensureCapacity(this.size + count);
+		System.arraycopy(latitudes, from, this.latitudes, this.size, count);
+		System.arraycopy(longitudes, from, this.longitudes, this.size, count);
+		this.size += count;
+		checkRep();
+	}
+
+	/**
+	 * Appends many points to this.
+	 * @requires points != null && no element of points is null
+	 * @modifies this
+	 * @effects appends the elements of points, in order, to the end of points.
+	 */
+	public void addAll(GeoPoint[] points) {
+		ensureCapacity(this.size + points.length);
+		for (GeoPoint gp : points) {
+			this.latitudes[this.size] = gp.getLatitude();
+			this.longitudes[this.size] = gp.getLongitude();
+			this.size++;
+		}
+		checkRep();
+	}
+
+	/**
+	 * Returns the latitude of a point of this.
+	 * @requires 0 <= i < size
+	 * @return the latitude of points[i], in millionths of degrees.
+	 */
+	public int getLatitude(int i) {
+		return this.latitudes[i];
+	}
+
+	/**
+	 * Returns the longitude of a point of this.
+	 * @requires 0 <= i < size
+	 * @return the longitude of points[i], in millionths of degrees.
+	 */
+	public int getLongitude(int i) {
+		return this.longitudes[i];
+	}
+
+	/**
+	 * Returns a point of this as a GeoPoint.
+	 * @requires 0 <= i < size
+	 * @return a GeoPoint equal to points[i], shared through GeoPoint.of().
+	 */
+	public GeoPoint get(int i) {
+		return GeoPoint.of(this.latitudes[i], this.longitudes[i]);
+	}
+
+	/**
+	 * Computes the distance between two points of this.
+	 * @requires 0 <= i < size && 0 <= j < size
+	 * @return points[i].distanceTo(points[j])
+	 */
+	public double distance(int i, int j) {
+		return GeoPoint.distance(this.latitudes[i], this.longitudes[i], this.latitudes[j], this.longitudes[j]);
+	}
+
+	/**
+	 * Computes the compass heading between two points of this.
+	 * @requires 0 <= i < size && 0 <= j < size && !points[i].equals(points[j])
+	 * @return points[i].headingTo(points[j])
+	 */
+	public double heading(int i, int j) {
+		return GeoPoint.heading(this.latitudes[i], this.longitudes[i], this.latitudes[j], this.longitudes[j]);
+	}
+
+	/**
+	 * Computes the lengths of the legs of the path through the points of this.
+	 * @requires out != null && out.length >= size - 1
+	 * @modifies out
+	 * @effects out[i] = points[i].distanceTo(points[i+1]) for 0 <= i < size - 1, to
+	 *          the precision of GeoKernels.legDistances()
+	 */
+	public void legDistances(double[] out) {
+		GeoKernels.legDistances(this, out);
+	}
+
+	/**
+	 * Computes the headings of the legs of the path through the points of this.
+	 * @requires out != null && out.length >= size - 1
+	 * @modifies out
+	 * @effects out[i] = points[i].headingTo(points[i+1]) for 0 <= i < size - 1,
+	 *          or 0 if points[i].equals(points[i+1]) (as for a GeoSegment of length 0)
+	 */
+	public void legHeadings(double[] out) {
+		GeoKernels.legHeadings(this, out);
+	}
+
+	/**
+	 * Computes the distances from a point to all the points of this.
+	 * @requires gp != null && out != null && out.length >= size
+	 * @modifies out
+	 * @effects out[i] = gp.distanceTo(points[i]) for 0 <= i < size, to the precision
+	 *          of GeoKernels.distancesFrom()
+	 */
+	public void distancesFrom(GeoPoint gp, double[] out) {
+		GeoKernels.distancesFrom(gp, this, out);
+	}
+
+	/**
+	 * Computes the headings from a point to all the points of this.
+	 * @requires gp != null && out != null && out.length >= size &&
+	 *           gp is not in points
+	 * @modifies out
+	 * @effects out[i] = gp.headingTo(points[i]) for 0 <= i < size
+	 */
+	public void headingsFrom(GeoPoint gp, double[] out) {
+		int latitude = gp.getLatitude();
+		int longitude = gp.getLongitude();
+		for (int i = 0; i < this.size; i++) {
+			out[i] = GeoPoint.heading(latitude, longitude, this.latitudes[i], this.longitudes[i]);
+		}
+	}
+
+	/**
+	 * Returns the array of latitudes of this, for the batch kernels of GeoKernels.
+	 * @return an array whose first size elements are the latitudes of points.
+	 *         The array is shared with this and must not be modified.
+	 */
+	int[] latitudes() {
+		return this.latitudes;
+	}
+
+	/**
+	 * Returns the array of longitudes of this, for the batch kernels of GeoKernels.
+	 * @return an array whose first size elements are the longitudes of points.
+	 *         The array is shared with this and must not be modified.
+	 */
+	int[] longitudes() {
+		return this.longitudes;
+	}
+
+	/**
+	 * Makes room for more points.
+	 * @modifies this
+	 * @effects grows the arrays of this so that they can hold at least
+	 *          capacity points.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (capacity > this.latitudes.length) {
+			int grown = Math.max(capacity, Math.max(INITIAL_CAPACITY, 2 * this.latitudes.length));
+			this.latitudes = Arrays.copyOf(this.latitudes, grown);
+			this.longitudes = Arrays.copyOf(this.longitudes, grown);
+		}
+	}
+}
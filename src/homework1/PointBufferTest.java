@@ -0,0 +1,150 @@
+package homework1;
+
+public class PointBufferTest {
+
+	private static final double tolerance = 1e-9;
+
+	private GeoPoint[] points = ExampleGeoSegments.points;
+	private PointBuffer buffer;
+
+
+	public PointBufferTest() {
+		buffer = new PointBuffer(2);
+		buffer.add(points[0]);
+		buffer.addAll(new GeoPoint[] { points[1], points[2] });
+		for (int i = 3; i < points.length; i++) {
+			buffer.add(points[i].getLatitude(), points[i].getLongitude());
+		}
+	}
+
+
+	boolean same(double x, double y) {
+		return ((y >= x-tolerance) && (y <= x+tolerance));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+	// Get the current line number in Java
+	public static String line() {
+		return String.format("%d", Thread.currentThread().getStackTrace()[2].getLineNumber());
+	}
+
+
+	public void test() {
+		show(line(), buffer.size() == points.length);
+		for (int i = 0; i < points.length; i++) {
+			show(line(), buffer.get(i).equals(points[i]));
+		}
+
+		show(line(), same(buffer.distance(1, 5), points[1].distanceTo(points[5])));
+		show(line(), same(buffer.heading(1, 5), points[1].headingTo(points[5])));
+
+		double[] legs = new double[points.length - 1];
+		double[] headings = new double[points.length - 1];
+		buffer.legDistances(legs);
+		buffer.legHeadings(headings);
+		boolean legsOk = true;
+		for (int i = 0; i + 1 < points.length; i++) {
+			legsOk &= same(legs[i], points[i].distanceTo(points[i + 1]));
+			legsOk &= same(headings[i], points[i].headingTo(points[i + 1]));
+		}
+		show(line(), legsOk);
+
+		GeoPoint zivSquare = new GeoPoint(32783098, 35014528);
+		PointBuffer others = new PointBuffer();
+		others.addAll(new int[] { points[0].getLatitude(), points[5].getLatitude() },
+				      new int[] { points[0].getLongitude(), points[5].getLongitude() }, 0, 2);
+		double[] distances = new double[2];
+		double[] bearings = new double[2];
+		others.distancesFrom(zivSquare, distances);
+		others.headingsFrom(zivSquare, bearings);
+		show(line(), same(distances[0], zivSquare.distanceTo(points[0])));
+		show(line(), same(distances[1], zivSquare.distanceTo(points[5])));
+		show(line(), same(bearings[0], zivSquare.headingTo(points[0])));
+		show(line(), same(bearings[1], zivSquare.headingTo(points[5])));
+	}
+
+
+	public void testKernels() {
+		show("GeoKernels");
+		double[] legs = new double[points.length - 1];
+		double[] headings = new double[points.length - 1];
+		GeoKernels.legDistances(buffer, legs);
+		GeoKernels.legHeadings(buffer, headings);
+		boolean legsOk = true;
+		for (int i = 0; i + 1 < points.length; i++) {
+			legsOk &= same(legs[i], points[i].distanceTo(points[i + 1]));
+			legsOk &= same(headings[i], points[i].headingTo(points[i + 1]));
+		}
+		show(line(), legsOk);
+
+		GeoPoint zivSquare = new GeoPoint(32783098, 35014528);
+		double[] distances = new double[points.length];
+		GeoKernels.distancesFrom(zivSquare, buffer, distances);
+		boolean distancesOk = true;
+		for (int i = 0; i < points.length; i++) {
+			distancesOk &= same(distances[i], zivSquare.distanceTo(points[i]));
+		}
+		show(line(), distancesOk);
+
+		// a long trace over the whole range of coordinates, compared relative to the length
+		java.util.Random random = new java.util.Random(13);
+		int count = 100000;
+		int[] latitudes = new int[count];
+		int[] longitudes = new int[count];
+		for (int i = 0; i < count; i++) {
+			latitudes[i] = random.nextInt(180000001) - 90000000;
+			longitudes[i] = random.nextInt(360000001) - 180000000;
+		}
+		double[] trace = new double[count - 1];
+		GeoKernels.legDistances(latitudes, longitudes, count, trace);
+		boolean traceOk = true;
+		for (int i = 0; i + 1 < count; i++) {
+			double exact = GeoPoint.distance(latitudes[i], longitudes[i], latitudes[i + 1], longitudes[i + 1]);
+			traceOk &= Math.abs(trace[i] - exact) <= GeoKernels.TOLERANCE * exact;
+		}
+		show(line(), traceOk);
+
+		// the vector kernels are in use whenever both they and their module are there
+		boolean vectorAvailable = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+				&& GeoKernels.class.getResource("VectorKernels.class") != null;
+		show(line(), GeoKernels.isVectorized() == vectorAvailable);
+
+		// the kernels in use, vector or scalar, give the scalar results bit for bit,
+		// whatever the count left over after the last whole vector
+		boolean sameOk = true;
+		for (int n = count - 70; n <= count; n++) {
+			double[] path = new double[count - 1];
+			double[] scalarPath = new double[count - 1];
+			GeoKernels.legDistances(latitudes, longitudes, n, path);
+			GeoKernels.SCALAR.legDistances(latitudes, longitudes, n, scalarPath);
+			double[] from = new double[count];
+			double[] scalarFrom = new double[count];
+			GeoKernels.distancesFrom(latitudes[0], longitudes[0], latitudes, longitudes, n, from);
+			GeoKernels.SCALAR.distancesFrom(latitudes[0], longitudes[0], latitudes, longitudes, n, scalarFrom);
+			sameOk &= java.util.Arrays.equals(path, scalarPath) && java.util.Arrays.equals(from, scalarFrom);
+		}
+		show(line(), sameOk);
+	}
+
+
+	public static void main(String[] args) {
+		PointBufferTest test = new PointBufferTest();
+		test.test();
+		test.testKernels();
+	}
+
+}
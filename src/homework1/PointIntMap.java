@@ -0,0 +1,232 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A PointIntMap maps points on the earth to nonnegative ints, such as the
+ * ids of the nodes of a road network.
+ * <p>
+ * Points are keyed by their packed coordinates, GeoPoint.pack(latitude,
+ * longitude), so that neither the keys nor the values are boxed. The map
+ * is an open-addressing hash table with linear probing over two primitive
+ * arrays, hashed by GeoPoint.mix(), and holds at most half as many
+ * mappings as it has slots.
+ * <p>
+ * PointIntMaps are mutable. A PointIntMap must not be modified by one
+ * thread while another thread uses it.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   mappings : set of (long, int)   // at most one mapping for each packed point
+ *   size : integer                  // number of mappings
+ * </pre>
+ */
+public final class PointIntMap {
+
+	/**
+	 * The value get() returns for points that have no mapping.
+	 */
+	public static final int NO_VALUE = -1;
+
+	// Packs a latitude of Integer.MIN_VALUE, which no GeoPoint has
+	private static final long EMPTY = Long.MIN_VALUE;
+
+	private static final int MIN_CAPACITY = 16;
+
+	private long[] keys;
+	private int[] values;
+	private int size;
+
+	/*
+	 * Abstraction function:
+	 *     mappings = { (keys[i], values[i]) | keys[i] != EMPTY }
+	 *
+	 * Representation invariant:
+	 *     keys.length == values.length && keys.length is a power of 2 &&
+	 *     size = |{ i | keys[i] != EMPTY }| && 2 * size <= keys.length &&
+	 *     foreach i such that keys[i] != EMPTY => values[i] >= 0 and no slot
+	 *     between slot(keys[i]) and i (going around the table) is EMPTY
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function. Only the O(1) part of the invariant is checked.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.keys.length == this.values.length);
+		assert(Integer.bitCount(this.keys.length) == 1);
+		assert(this.size >= 0 && 2 * this.size <= this.keys.length);
+	}
+
+	/**
+	 * Constructs a new PointIntMap.
+	 * @effects Constructs a new, empty PointIntMap.
+	 */
+	public PointIntMap() {
+		this(MIN_CAPACITY / 2);
+	}
+
+	/**
+	 * Constructs a new PointIntMap.
+	 * @requires expectedSize >= 0
+	 * @effects Constructs a new, empty PointIntMap with room for expectedSize
+	 *          mappings before it has to grow.
+	 */
+	public PointIntMap(int expectedSize) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2 * expectedSize) {
+			capacity *= 2;
+		}
+		this.keys = new long[capacity];
+		this.values = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		this.size = 0;
+		checkRep();
+	}
+
+	/**
+	 * Returns the number of mappings in this.
+	 * @return size
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/**
+	 * Returns the value of a point.
+	 * @requires key = GeoPoint.pack(latitude, longitude) of a valid GeoPoint
+	 * @return v if (key, v) is in mappings, otherwise NO_VALUE.
+	 */
+	public int get(long key) {
+		int mask = this.keys.length - 1;
+		for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+			long k = this.keys[i];
+			if (k == key) {
+				return this.values[i];
+			}
+			if (k == EMPTY) {
+				return NO_VALUE;
+			}
+		}
+	}
+
+	/**
+	 * Returns the value of a point.
+	 * @requires gp != null
+	 * @return get(GeoPoint.pack(gp.latitude, gp.longitude))
+	 */
+	public int get(GeoPoint gp) {
+		return get(GeoPoint.pack(gp.getLatitude(), gp.getLongitude()));
+	}
+
+	/**
+	 * Maps a point to a value.
+	 * @requires key = GeoPoint.pack(latitude, longitude) of a valid GeoPoint && value >= 0
+	 * @modifies this
+	 * @effects replaces the mapping of key, if any, by (key, value).
+	 * @return the value key was mapped to before, or NO_VALUE if it had none.
+	 */
+	public int put(long key, int value) {
+		int mask = this.keys.length - 1;
+		int i = slot(key, mask);
+		while (this.keys[i] != EMPTY) {
+			if (this.keys[i] == key) {
+				int previous = this.values[i];
+				this.values[i] = value;
+				return previous;
+			}
+			i = (i + 1) & mask;
+		}
+		insert(i, key, value);
+		return NO_VALUE;
+	}
+
+	/**
+	 * Returns the value of a point, assigning it the next value if it has none.
+	 * <p>
+	 * Assigning consecutive values this way numbers the distinct points in
+	 * the order they are first seen, as the nodes of a graph are numbered.
+	 * @requires key = GeoPoint.pack(latitude, longitude) of a valid GeoPoint
+	 * @modifies this
+	 * @effects if key has no mapping, adds the mapping (key, size).
+	 * @return the value key is mapped to.
+	 */
+	public int getOrAssign(long key) {
+		int mask = this.keys.length - 1;
+		int i = slot(key, mask);
+		while (this.keys[i] != EMPTY) {
+			if (this.keys[i] == key) {
+				return this.values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		int value = this.size;
+		insert(i, key, value);
+		return value;
+	}
+
+	/**
+	 * Returns the value of a point, assigning it the next value if it has none.
+	 * @requires gp != null
+	 * @modifies this
+	 * @effects getOrAssign(GeoPoint.pack(gp.latitude, gp.longitude))
+	 * @return the value gp is mapped to.
+	 */
+	public int getOrAssign(GeoPoint gp) {
+		return getOrAssign(GeoPoint.pack(gp.getLatitude(), gp.getLongitude()));
+	}
+
+	/**
+	 * Returns the first slot to probe for a key.
+	 * @requires mask + 1 is a power of 2
+	 * @return a slot between 0 and mask.
+	 */
+	private static int slot(long key, int mask) {
+		return (int) GeoPoint.mix(key) & mask;
+	}
+
+	/**
+	 * Adds a mapping in an empty slot.
+	 * @requires keys[i] == EMPTY && i is the first EMPTY slot probed for key && value >= 0
+	 * @modifies this
+	 * @effects adds (key, value) to mappings, growing the table if it became half full.
+	 */
+	private void insert(int i, long key, int value) {
+		this.keys[i] = key;
+		this.values[i] = value;
+		this.size++;
+		if (2 * this.size > this.keys.length) {
+			rehash(2 * this.keys.length);
+		}
+		checkRep();
+	}
+
+	/**
+	 * Moves all the mappings into a new table.
+	 * @requires capacity is a power of 2 && 2 * size <= capacity
+	 * @modifies this
+	 * @effects replaces the arrays of this by arrays of capacity slots holding the same mappings.
+	 */
+	private void rehash(int capacity) {
+		long[] oldKeys = this.keys;
+		int[] oldValues = this.values;
+		this.keys = new long[capacity];
+		this.values = new int[capacity];
+		Arrays.fill(this.keys, EMPTY);
+		int mask = capacity - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			long key = oldKeys[j];
+			if (key != EMPTY) {
+				int i = slot(key, mask);
+				while (this.keys[i] != EMPTY) {
+					i = (i + 1) & mask;
+				}
+				this.keys[i] = key;
+				this.values[i] = oldValues[j];
+			}
+		}
+	}
+}
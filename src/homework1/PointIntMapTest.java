@@ -0,0 +1,107 @@
+package homework1;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class PointIntMapTest {
+
+	private GeoPoint[] points = ExampleGeoSegments.points;
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+	// Get the current line number in Java
+	public static String line() {
+		return String.format("%d", Thread.currentThread().getStackTrace()[2].getLineNumber());
+	}
+
+
+	public void testHash() {
+		show("GeoPoint hashing");
+		GeoPoint gp = points[1];
+		show(line(), GeoPoint.pack(gp.getLatitude(), gp.getLongitude())
+				== ((long) gp.getLatitude() << 32 | (gp.getLongitude() & 0xffffffffL)));
+		show(line(), GeoPoint.pack(-1, 1) != GeoPoint.pack(1, -1));
+		show(line(), gp.hashCode() == new GeoPoint(gp.getLatitude(), gp.getLongitude()).hashCode());
+
+		// a 1000 x 1000 grid of neighboring points, all in a couple of kilometers
+		java.util.Set<Integer> hashes = new java.util.HashSet<Integer>();
+		for (int i = 0; i < 1000; i++) {
+			for (int j = 0; j < 1000; j++) {
+				hashes.add(new GeoPoint(32780000 + i, 35010000 + j).hashCode());
+			}
+		}
+		show(line(), hashes.size() > 999000);
+	}
+
+
+	public void testMap() {
+		show("PointIntMap");
+		PointIntMap map = new PointIntMap();
+		show(line(), map.size() == 0);
+		show(line(), map.get(points[0]) == PointIntMap.NO_VALUE);
+
+		// numbering the distinct endpoints of the example segments
+		for (GeoSegment gs : ExampleGeoSegments.segments) {
+			map.getOrAssign(gs.getP1());
+			map.getOrAssign(gs.getP2());
+		}
+		show(line(), map.size() == points.length);
+		boolean distinct = true;
+		for (int i = 0; i < points.length; i++) {
+			int id = map.get(points[i]);
+			distinct &= id >= 0 && id < points.length;
+			for (int j = 0; j < i; j++) {
+				distinct &= map.get(points[j]) != id;
+			}
+		}
+		show(line(), distinct);
+
+		show(line(), map.put(GeoPoint.pack(0, 0), 7) == PointIntMap.NO_VALUE);
+		show(line(), map.put(GeoPoint.pack(0, 0), 8) == 7);
+		show(line(), map.get(GeoPoint.pack(0, 0)) == 8);
+		show(line(), map.getOrAssign(GeoPoint.pack(0, 0)) == 8);
+		show(line(), map.size() == points.length + 1);
+
+		// against a HashMap, through many rehashes
+		Random random = new Random(16);
+		PointIntMap large = new PointIntMap();
+		Map<Long, Integer> expected = new HashMap<Long, Integer>();
+		for (int i = 0; i < 200000; i++) {
+			long key = GeoPoint.pack(32700000 + random.nextInt(1000), 35000000 + random.nextInt(1000));
+			Integer previous = expected.putIfAbsent(key, expected.size());
+			int id = large.getOrAssign(key);
+			if (previous != null && previous != id) {
+				expected.clear();
+				break;
+			}
+		}
+		boolean same = large.size() == expected.size();
+		for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+			same &= large.get(entry.getKey()) == entry.getValue();
+		}
+		show(line(), same && !expected.isEmpty());
+		show(line(), large.get(GeoPoint.pack(0, 0)) == PointIntMap.NO_VALUE);
+	}
+
+
+	public static void main(String[] args) {
+		PointIntMapTest test = new PointIntMapTest();
+		test.testHash();
+		test.testMap();
+	}
+
+}
@@ -0,0 +1,426 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * A RoadGraph is a road network made of GeoSegments, in which shortest
+ * Routes between points can be found. RoadGraphs are immutable.
+ * <p>
+ * The nodes of the graph are the distinct endpoints of the segments, and
+ * every segment of positive length can be traveled both ways: from p1 to
+ * p2 as it is, and from p2 to p1 as its reverse(). The length of traveling
+ * a segment is its getLength().
+ * <p>
+ * The graph is laid out for city-scale networks of millions of segments:
+ * nodes are numbered through a PointIntMap and their coordinates kept in a
+ * PointBuffer, and the edges leaving each node are stored contiguously in
+ * primitive arrays (a "compressed sparse row" layout), so that a search
+ * touches no objects but the segments of the route it finally returns.
+ * The nodes are also indexed in a grid of cells, so the node nearest to a
+ * point is found by looking around the point rather than at every node.
+ * Searches keep their per-node state in SearchSpaces borrowed from a small
+ * pool the graph owns, which are reused from query to query, so a RoadGraph
+ * may be searched by several threads at once.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   nodes : sequence of GeoPoint    // the distinct endpoints of the segments; the id of nodes[i] is i
+ *   segments : set of GeoSegment    // the segments of positive length the graph was built from
+ * </pre>
+ */
+public class RoadGraph {
+
+	private final GeoSegment[] segments;
+	private final PointBuffer nodes;
+	private final PointIntMap nodeIds;
+
+	// The edges leaving node v are firstEdge[v], ..., firstEdge[v+1]-1. Edge e
+	// leads to edgeTargets[e], has length edgeLengths[e] and travels the segment
+	// segments[edgeSegments[e] >> 1], reversed iff edgeSegments[e] is odd
+	private final int[] firstEdge;
+	private final int[] edgeTargets;
+	private final double[] edgeLengths;
+	private final int[] edgeSegments;
+
+	private final NodeGrid nodeGrid;
+
+	private final SearchSpacePool searchSpaces;
+
+	/*
+	 * Abstraction function:
+	 *     nodes[i] = (nodes.latitude(i), nodes.longitude(i)) for 0 <= i < nodes.size
+	 *     segments = the elements of this.segments
+	 *
+	 * Representation invariant:
+	 *     firstEdge.length == nodes.size + 1 && firstEdge[0] == 0 && firstEdge is nondecreasing &&
+	 *     firstEdge[nodes.size] == edgeTargets.length == edgeLengths.length == edgeSegments.length ==
+	 *     2 * segments.length &&
+	 *     foreach i in 0..(nodes.size-1) => nodeIds.get(nodes[i]) == i &&
+	 *     (nodeGrid == null iff nodes.size == 0) && nodeGrid indexes the points of this.nodes &&
+	 *     foreach v, e in firstEdge[v]..(firstEdge[v+1]-1) => the segment of e leads from nodes[v]
+	 *     to nodes[edgeTargets[e]] and has length edgeLengths[e]
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function. Only the O(1) part of the invariant is checked.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.firstEdge.length == this.nodes.size() + 1);
+		assert(this.firstEdge[0] == 0);
+		assert(this.firstEdge[this.nodes.size()] == 2 * this.segments.length);
+		assert(this.edgeTargets.length == 2 * this.segments.length);
+		assert(this.nodeIds.size() == this.nodes.size());
+	}
+
+	/**
+	 * Constructs a new RoadGraph.
+	 * @requires segments != null && no element of segments is null
+	 * @effects Constructs a new RoadGraph of the segments of positive length
+	 *          among segments. Segments of length 0 lead nowhere and are left out.
+	 */
+	public RoadGraph(Iterable<GeoSegment> segments) {
+		ArrayList<GeoSegment> list = new ArrayList<GeoSegment>();
+		for (GeoSegment gs : segments) {
+			if (!gs.getP1().equals(gs.getP2())) {
+				list.add(gs);
+			}
+		}
+		this.segments = list.toArray(new GeoSegment[list.size()]);
+		int segmentCount = this.segments.length;
+
+		// number the endpoints
+		this.nodes = new PointBuffer(segmentCount + 1);
+		this.nodeIds = new PointIntMap(segmentCount + 1);
+		int[] p1Nodes = new int[segmentCount];
+		int[] p2Nodes = new int[segmentCount];
+		for (int s = 0; s < segmentCount; s++) {
+			p1Nodes[s] = addNode(this.segments[s].getP1());
+			p2Nodes[s] = addNode(this.segments[s].getP2());
+		}
+		int nodeCount = this.nodes.size();
+
+		// lay the edges out by source node: count, then fill
+		this.firstEdge = new int[nodeCount + 1];
+		for (int s = 0; s < segmentCount; s++) {
+			this.firstEdge[p1Nodes[s] + 1]++;
+			this.firstEdge[p2Nodes[s] + 1]++;
+		}
+		for (int v = 0; v < nodeCount; v++) {
+			this.firstEdge[v + 1] += this.firstEdge[v];
+		}
+		this.edgeTargets = new int[2 * segmentCount];
+		this.edgeLengths = new double[2 * segmentCount];
+		this.edgeSegments = new int[2 * segmentCount];
+		int[] next = new int[nodeCount];
+		System.arraycopy(this.firstEdge, 0, next, 0, nodeCount);
+		for (int s = 0; s < segmentCount; s++) {
+			double length = this.segments[s].getLength();
+			int forward = next[p1Nodes[s]]++;
+			this.edgeTargets[forward] = p2Nodes[s];
+			this.edgeLengths[forward] = length;
+			this.edgeSegments[forward] = 2 * s;
+			int backward = next[p2Nodes[s]]++;
+			this.edgeTargets[backward] = p1Nodes[s];
+			this.edgeLengths[backward] = length;
+			this.edgeSegments[backward] = 2 * s + 1;
+		}
+
+		this.nodeGrid = nodeCount > 0 ? new NodeGrid(this.nodes) : null;
+		this.searchSpaces = new SearchSpacePool(nodeCount);
+		checkRep();
+	}
+
+	/**
+	 * Returns the id of a point, numbering it as a new node if it has none.
+	 * @requires gp != null
+	 * @modifies this.nodes, this.nodeIds
+	 * @effects if gp is not in nodes, appends it to nodes.
+	 * @return the id of gp.
+	 */
+	private int addNode(GeoPoint gp) {
+		int id = this.nodeIds.getOrAssign(gp);
+		if (id == this.nodes.size()) {
+			this.nodes.add(gp);
+		}
+		return id;
+	}
+
+	/**
+	 * Returns the number of nodes of this.
+	 * @return |nodes|
+	 */
+	public int getNodeCount() {
+		return this.nodes.size();
+	}
+
+	/**
+	 * Returns the number of segments of this.
+	 * @return |segments|
+	 */
+	public int getSegmentCount() {
+		return this.segments.length;
+	}
+
+	/**
+	 * Returns the id of a node.
+	 * @requires gp != null
+	 * @return the index i such that nodes[i].equals(gp), or -1 if gp is not a node of this.
+	 */
+	public int getNodeId(GeoPoint gp) {
+		return this.nodeIds.get(gp);
+	}
+
+	/**
+	 * Returns a node.
+	 * @requires 0 <= id < getNodeCount()
+	 * @return nodes[id]
+	 */
+	public GeoPoint getNode(int id) {
+		return this.nodes.get(id);
+	}
+
+	/**
+	 * Returns the node nearest to a point.
+	 * @requires gp != null && getNodeCount() > 0
+	 * @return the node of this at the smallest distance from gp.
+	 */
+	public GeoPoint getNearestNode(GeoPoint gp) {
+		return getNode(nearestNode(gp));
+	}
+
+	/**
+	 * Finds a shortest route between two points.
+	 * <p>
+	 * The search is A*, guided by the straight-line distance to the
+	 * destination, GeoPoint.distanceTo(), which is never more than the
+	 * length of any route there.
+	 * @requires from != null && to != null
+	 * @return a Route r of minimal length such that r.start = from && r.end = to,
+	 *         made of segments and reversed segments of this, or null if from or to
+	 *         is not a node of this, if from equals to, or if to cannot be reached
+	 *         from from.
+	 */
+	public Route findRoute(GeoPoint from, GeoPoint to) {
+		int source = getNodeId(from);
+		int target = getNodeId(to);
+		if (source < 0 || target < 0 || source == target) {
+			return null;
+		}
+		SearchSpace space = this.searchSpaces.borrow();
+		try {
+			if (!search(source, target, v -> this.nodes.distance(v, target), space)) {
+				return null;
+			}
+			return routeTo(space, target);
+		} finally {
+			this.searchSpaces.release(space);
+		}
+	}
+
+	/**
+	 * Returns the pool of search states of this graph.
+	 * @return the SearchSpacePool that lends SearchSpaces for this graph to
+	 *         the searches over it, and over the structures built on it.
+	 */
+	SearchSpacePool searchSpaces() {
+		return this.searchSpaces;
+	}
+
+	/**
+	 * Runs an A* search from one node to another.
+	 * @requires 0 <= source < getNodeCount() && -1 <= target < getNodeCount() &&
+	 *           space.nodeCount() == getNodeCount() &&
+	 *           heuristic is a consistent lower bound on the distance to target (0 for -1)
+	 * @modifies space
+	 * @effects resets space and searches it from source until target is settled or all
+	 *          the nodes reachable from source are; a target of -1 is never settled, so
+	 *          the search is a full Dijkstra search from source.
+	 * @return true iff target was reached; then space holds a shortest path to it.
+	 */
+	boolean search(int source, int target, IntToDoubleFunction heuristic, SearchSpace space) {
+		space.reset();
+		NodeHeap heap = space.heap;
+		space.reach(source, 0, SearchSpace.NO_EDGE, SearchSpace.NO_EDGE);
+		heap.add(source, heuristic.applyAsDouble(source));
+		while (!heap.isEmpty()) {
+			int v = heap.poll();
+			if (space.isSettled(v)) {
+				// a stale entry, left behind when v was reached again at a shorter distance
+				continue;
+			}
+			space.settle(v);
+			if (v == target) {
+				return true;
+			}
+			double distance = space.distance(v);
+			for (int e = this.firstEdge[v], end = this.firstEdge[v + 1]; e < end; e++) {
+				int w = this.edgeTargets[e];
+				double candidate = distance + this.edgeLengths[e];
+				if (candidate < space.distance(w) && !space.isSettled(w)) {
+					space.reach(w, candidate, v, e);
+					heap.add(w, candidate + heuristic.applyAsDouble(w));
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Runs a Dijkstra search from a node up to a distance.
+	 * @requires 0 <= source < getNodeCount() && space.nodeCount() == getNodeCount() &&
+	 *           settled != null
+	 * @modifies space, settled
+	 * @effects resets space and searches it from source until all the nodes whose distance
+	 *          from source is at most limit are settled, and no others, appending them to
+	 *          settled in order of increasing distance.
+	 */
+	void searchWithin(int source, double limit, SearchSpace space, IntList settled) {
+		space.reset();
+		NodeHeap heap = space.heap;
+		space.reach(source, 0, SearchSpace.NO_EDGE, SearchSpace.NO_EDGE);
+		heap.add(source, 0);
+		while (!heap.isEmpty() && heap.peekKey() <= limit) {
+			int v = heap.poll();
+			if (space.isSettled(v)) {
+				continue;
+			}
+			space.settle(v);
+			settled.add(v);
+			double distance = space.distance(v);
+			for (int e = this.firstEdge[v], end = this.firstEdge[v + 1]; e < end; e++) {
+				int w = this.edgeTargets[e];
+				double candidate = distance + this.edgeLengths[e];
+				if (candidate < space.distance(w) && !space.isSettled(w)) {
+					space.reach(w, candidate, v, e);
+					heap.add(w, candidate);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns the node nearest to a point.
+	 * <p>
+	 * The node is looked up in a NodeGrid built with the graph, which
+	 * measures the distances to the nodes around gp only.
+	 * @requires gp != null && getNodeCount() > 0
+	 * @return the id of the node of this at the smallest distance from gp.
+	 */
+	int nearestNode(GeoPoint gp) {
+		return this.nodeGrid.nearest(gp);
+	}
+
+	/**
+	 * Returns the route a search found to a node.
+	 * @requires space.isReached(target) && target is not the origin of the search
+	 * @return the Route following the parent edges of space from the origin of the
+	 *         search to target.
+	 */
+	Route routeTo(SearchSpace space, int target) {
+		int count = 0;
+		for (int v = target; space.parentEdge(v) != SearchSpace.NO_EDGE; v = space.parentNode(v)) {
+			count++;
+		}
+		int[] path = new int[count];
+		for (int v = target; space.parentEdge(v) != SearchSpace.NO_EDGE; v = space.parentNode(v)) {
+			path[--count] = space.parentEdge(v);
+		}
+		return routeOf(path, 0, path.length);
+	}
+
+	/**
+	 * Returns the route along a path of edges.
+	 * @requires 0 <= from < to <= edges.length && edges[from..to-1] is a path of edges of this
+	 * @return the Route made of the segments traveled by edges[from], ..., edges[to-1].
+	 */
+	Route routeOf(int[] edges, int from, int to) {
+		Route route = new Route(edgeSegment(edges[from]));
+		for (int i = from + 1; i < to; i++) {
+			route = route.addSegment(edgeSegment(edges[i]));
+		}
+		return route;
+	}
+
+	/**
+	 * Returns the first edge leaving a node.
+	 * @requires 0 <= v <= getNodeCount()
+	 * @return the first edge leaving v; the edges leaving v are edgeBegin(v), ..., edgeBegin(v+1)-1.
+	 */
+	int edgeBegin(int v) {
+		return this.firstEdge[v];
+	}
+
+	/**
+	 * Returns the node an edge leads to.
+	 * @requires 0 <= e < 2 * getSegmentCount()
+	 * @return the id of the node e leads to.
+	 */
+	int edgeTarget(int e) {
+		return this.edgeTargets[e];
+	}
+
+	/**
+	 * Returns the length of an edge.
+	 * @requires 0 <= e < 2 * getSegmentCount()
+	 * @return the length of the segment e travels, in kilometers.
+	 */
+	double edgeLength(int e) {
+		return this.edgeLengths[e];
+	}
+
+	/**
+	 * Returns the segment an edge travels, in the direction it travels it.
+	 * @requires 0 <= e < 2 * getSegmentCount()
+	 * @return the segment of e if e travels it from p1 to p2, or its reverse() otherwise.
+	 */
+	GeoSegment edgeSegment(int e) {
+		GeoSegment gs = this.segments[this.edgeSegments[e] >> 1];
+		return (this.edgeSegments[e] & 1) == 0 ? gs : gs.reverse();
+	}
+
+	/**
+	 * Returns the segment an edge travels, as it is in this.
+	 * @requires 0 <= e < 2 * getSegmentCount()
+	 * @return the segment of e, not reversed.
+	 */
+	GeoSegment segmentOfEdge(int e) {
+		return this.segments[this.edgeSegments[e] >> 1];
+	}
+
+	/**
+	 * Returns whether an edge travels its segment backwards.
+	 * @requires 0 <= e < 2 * getSegmentCount()
+	 * @return true iff e travels its segment from p2 to p1.
+	 */
+	boolean isReversed(int e) {
+		return (this.edgeSegments[e] & 1) != 0;
+	}
+
+	/**
+	 * Returns the edge traveling the same segment as an edge, the other way.
+	 * @requires 0 <= e < 2 * getSegmentCount()
+	 * @return the edge f that leads from edgeTarget(e) back to the node e leaves, over
+	 *         the segment of e.
+	 */
+	int reverseEdge(int e) {
+		int code = this.edgeSegments[e] ^ 1;
+		int f = this.firstEdge[this.edgeTargets[e]];
+		while (this.edgeSegments[f] != code) {
+			f++;
+		}
+		return f;
+	}
+
+	/**
+	 * Returns the coordinates of the nodes of this.
+	 * @return a PointBuffer whose i'th point is nodes[i]. It must not be modified.
+	 */
+	PointBuffer nodes() {
+		return this.nodes;
+	}
+}
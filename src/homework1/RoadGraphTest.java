@@ -0,0 +1,453 @@
+package homework1;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class RoadGraphTest {
+
+	private static final double tolerance = 1e-9;
+
+	private static final int gridSize = 60;
+
+	private GeoPoint[] points = ExampleGeoSegments.points;
+	private RoadGraph example = new RoadGraph(Arrays.asList(ExampleGeoSegments.segments));
+	private GeoPoint[][] grid = new GeoPoint[gridSize][gridSize];
+	private RoadGraph city;
+	private Random random = new Random(21);
+
+
+	/**
+	 * Builds a city of gridSize x gridSize intersections about 100 meters apart,
+	 * with streets running east-west and avenues north-south, and a few blocks missing.
+	 */
+	public RoadGraphTest() {
+		for (int i = 0; i < gridSize; i++) {
+			for (int j = 0; j < gridSize; j++) {
+				grid[i][j] = new GeoPoint(32770000 + 900 * i + random.nextInt(300),
+						                  34990000 + 1070 * j + random.nextInt(300));
+			}
+		}
+		List<GeoSegment> segments = new ArrayList<GeoSegment>();
+		for (int i = 0; i < gridSize; i++) {
+			for (int j = 0; j < gridSize; j++) {
+				if (j + 1 < gridSize && random.nextInt(10) != 0) {
+					segments.add(new GeoSegment("Street " + i, grid[i][j], grid[i][j + 1]));
+				}
+				if (i + 1 < gridSize && random.nextInt(10) != 0) {
+					segments.add(new GeoSegment("Avenue " + j, grid[i][j], grid[i + 1][j]));
+				}
+			}
+		}
+		city = new RoadGraph(segments);
+	}
+
+
+	boolean same(double x, double y) {
+		return ((y >= x-tolerance) && (y <= x+tolerance));
+	}
+
+
+	public void show(String str) {
+		System.out.println();
+		System.out.println("***** " + str + " *****");
+	}
+
+
+	public void show(String str, boolean ok) {
+		if (ok)
+			System.out.print("v ");
+		else
+			System.out.print("x ");
+		System.out.println(str);
+	}
+
+	// Get the current line number in Java
+	public static String line() {
+		return String.format("%d", Thread.currentThread().getStackTrace()[2].getLineNumber());
+	}
+
+
+	/**
+	 * Returns the length of a shortest route found by plain Dijkstra, or +infinity.
+	 */
+	double dijkstra(RoadGraph graph, GeoPoint from, GeoPoint to) {
+		SearchSpace space = graph.searchSpaces().borrow();
+		try {
+			int target = graph.getNodeId(to);
+			graph.search(graph.getNodeId(from), target, v -> 0, space);
+			return space.distance(target);
+		} finally {
+			graph.searchSpaces().release(space);
+		}
+	}
+
+
+	/**
+	 * Returns whether a route is a connected path from one point to another.
+	 */
+	boolean connects(Route route, GeoPoint from, GeoPoint to) {
+		boolean ok = route.getStart().equals(from) && route.getEnd().equals(to);
+		GeoPoint at = from;
+		double length = 0;
+		for (var iter = route.getGeoSegments(); iter.hasNext(); ) {
+			GeoSegment gs = iter.next();
+			ok &= gs.getP1().equals(at);
+			at = gs.getP2();
+			length += gs.getLength();
+		}
+		return ok && same(length, route.getLength());
+	}
+
+
+	public void testAStar() {
+		show("RoadGraph.findRoute");
+		show(line(), example.getNodeCount() == points.length);
+		show(line(), example.getNodeId(points[3]) >= 0);
+		show(line(), example.getNode(example.getNodeId(points[3])).equals(points[3]));
+		show(line(), example.getNodeId(new GeoPoint(0, 0)) == -1);
+
+		// from Hankin Road to the Hagalil & Hanita intersection
+		Route route = example.findRoute(points[0], points[5]);
+		show(line(), route != null && connects(route, points[0], points[5]));
+		show(line(), same(route.getLength(), dijkstra(example, points[0], points[5])));
+		// and back, through reversed segments
+		Route back = example.findRoute(points[5], points[0]);
+		show(line(), back != null && connects(back, points[5], points[0]));
+		show(line(), same(back.getLength(), route.getLength()));
+
+		show(line(), example.findRoute(points[0], points[0]) == null);
+		show(line(), example.findRoute(points[0], new GeoPoint(0, 0)) == null);
+
+		// a disconnected piece of road
+		List<GeoSegment> islands = new ArrayList<GeoSegment>(Arrays.asList(ExampleGeoSegments.segments));
+		GeoPoint far1 = new GeoPoint(31000000, 35000000);
+		GeoPoint far2 = new GeoPoint(31001000, 35000000);
+		islands.add(new GeoSegment("Island", far1, far2));
+		RoadGraph withIsland = new RoadGraph(islands);
+		show(line(), withIsland.findRoute(points[0], far1) == null);
+		show(line(), withIsland.findRoute(far2, far1) != null);
+
+		// against Dijkstra on the synthetic city
+		boolean optimal = true, connected = true, grouped = true;
+		int found = 0;
+		for (int k = 0; k < 200; k++) {
+			GeoPoint from = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+			GeoPoint to = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+			if (city.getNodeId(from) < 0 || city.getNodeId(to) < 0 || from.equals(to)) {
+				continue;
+			}
+			Route r = city.findRoute(from, to);
+			double expected = dijkstra(city, from, to);
+			if (r == null) {
+				optimal &= expected == Double.POSITIVE_INFINITY;
+				continue;
+			}
+			found++;
+			optimal &= same(r.getLength(), expected);
+			connected &= connects(r, from, to);
+			int features = 0;
+			for (var iter = r.getGeoFeatures(); iter.hasNext(); iter.next()) {
+				features++;
+			}
+			int segments = 0;
+			for (var iter = r.getGeoSegments(); iter.hasNext(); iter.next()) {
+				segments++;
+			}
+			grouped &= features <= segments;
+		}
+		show(line(), found > 150);
+		show(line(), optimal);
+		show(line(), connected);
+		show(line(), grouped);
+	}
+
+
+	public void testContraction() throws IOException {
+		show("ContractionHierarchy");
+		ContractionHierarchy small = ContractionHierarchy.build(example);
+		Route route = small.findRoute(points[0], points[5]);
+		show(line(), route != null && connects(route, points[0], points[5]));
+		show(line(), same(route.getLength(), dijkstra(example, points[0], points[5])));
+		Route back = small.findRoute(points[5], points[0]);
+		show(line(), back != null && connects(back, points[5], points[0]));
+		show(line(), small.findRoute(points[0], points[0]) == null);
+		show(line(), small.getDistance(points[0], points[0]) == 0);
+		show(line(), small.findRoute(points[0], new GeoPoint(0, 0)) == null);
+
+		// against Dijkstra on the synthetic city, before and after saving
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(city);
+		show(line(), hierarchy.getShortcutCount() > 0);
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		hierarchy.save(new DataOutputStream(bytes));
+		ContractionHierarchy loaded = ContractionHierarchy.load(city,
+				new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		boolean optimal = true, connected = true, grouped = true, same = true;
+		int found = 0;
+		for (int k = 0; k < 300; k++) {
+			GeoPoint from = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+			GeoPoint to = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+			if (city.getNodeId(from) < 0 || city.getNodeId(to) < 0 || from.equals(to)) {
+				continue;
+			}
+			Route r = hierarchy.findRoute(from, to);
+			double expected = dijkstra(city, from, to);
+			same &= same(loaded.getDistance(from, to), hierarchy.getDistance(from, to));
+			if (r == null) {
+				optimal &= expected == Double.POSITIVE_INFINITY;
+				continue;
+			}
+			found++;
+			optimal &= same(r.getLength(), expected) && same(hierarchy.getDistance(from, to), expected);
+			connected &= connects(r, from, to);
+			// consecutive features are on different streets
+			String previous = null;
+			for (var iter = r.getGeoFeatures(); iter.hasNext(); ) {
+				String name = iter.next().getName();
+				grouped &= !name.equals(previous);
+				previous = name;
+			}
+			same &= loaded.findRoute(from, to).equals(r);
+		}
+		show(line(), found > 200);
+		show(line(), optimal);
+		show(line(), connected);
+		show(line(), grouped);
+		show(line(), same);
+
+		// a hierarchy loads only along with its own graph
+		boolean rejected = false;
+		try {
+			ContractionHierarchy.load(example, new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+		} catch (IOException e) {
+			rejected = true;
+		}
+		show(line(), rejected);
+
+		// nor along with a graph of as many nodes and segments: the same streets moved by
+		// a meter, or listed in another order
+		List<GeoSegment> moved = new ArrayList<GeoSegment>();
+		List<GeoSegment> reordered = new ArrayList<GeoSegment>();
+		for (int e = 0; e < 2 * city.getSegmentCount(); e++) {
+			if (!city.isReversed(e)) {
+				GeoSegment gs = city.segmentOfEdge(e);
+				moved.add(new GeoSegment(gs.getName(), new GeoPoint(gs.getP1().getLatitude() + 9, gs.getP1().getLongitude()),
+						                 new GeoPoint(gs.getP2().getLatitude() + 9, gs.getP2().getLongitude())));
+				reordered.add(0, gs);
+			}
+		}
+		for (RoadGraph other : Arrays.asList(new RoadGraph(moved), new RoadGraph(reordered))) {
+			rejected = false;
+			try {
+				ContractionHierarchy.load(other, new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+			} catch (IOException e) {
+				rejected = true;
+			}
+			show(line(), rejected && other.getNodeCount() == city.getNodeCount()
+					&& other.getSegmentCount() == city.getSegmentCount());
+		}
+	}
+
+
+	public void testLandmarks() {
+		show("Landmarks");
+		for (Landmarks.Selection selection : Landmarks.Selection.values()) {
+			Landmarks landmarks = new Landmarks(city, 8, selection);
+			show(line(), landmarks.getCount() == 8);
+			boolean distinct = true;
+			for (int l = 0; l < 8; l++) {
+				for (int k = 0; k < l; k++) {
+					distinct &= !landmarks.getLandmark(l).equals(landmarks.getLandmark(k));
+				}
+			}
+			show(line(), distinct);
+
+			boolean bounded = true, tighter = false, optimal = true, connected = true;
+			for (int k = 0; k < 200; k++) {
+				GeoPoint from = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+				GeoPoint to = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+				if (city.getNodeId(from) < 0 || city.getNodeId(to) < 0 || from.equals(to)) {
+					continue;
+				}
+				double expected = dijkstra(city, from, to);
+				double bound = landmarks.getLowerBound(from, to);
+				bounded &= bound <= expected + tolerance && bound >= from.distanceTo(to);
+				tighter |= bound > from.distanceTo(to) + tolerance;
+				Route r = landmarks.findRoute(from, to);
+				if (r == null) {
+					optimal &= expected == Double.POSITIVE_INFINITY;
+					continue;
+				}
+				optimal &= same(r.getLength(), expected);
+				connected &= connects(r, from, to);
+			}
+			show(line(), bounded);
+			show(line(), tighter);
+			show(line(), optimal);
+			show(line(), connected);
+		}
+
+		// rebuilding for a graph with a new piece of road keeps the landmarks
+		List<GeoSegment> islands = new ArrayList<GeoSegment>(Arrays.asList(ExampleGeoSegments.segments));
+		Landmarks small = new Landmarks(example, 2, Landmarks.Selection.FARTHEST);
+		GeoPoint far1 = new GeoPoint(31000000, 35000000);
+		GeoPoint far2 = new GeoPoint(31001000, 35000000);
+		islands.add(new GeoSegment("Island", far1, far2));
+		RoadGraph withIsland = new RoadGraph(islands);
+		Landmarks rebuilt = small.rebuild(withIsland);
+		show(line(), rebuilt.getCount() == 2 && rebuilt.getGraph() == withIsland);
+		show(line(), rebuilt.getLandmark(0).equals(small.getLandmark(0)));
+		show(line(), rebuilt.findRoute(points[0], far1) == null);
+		show(line(), rebuilt.findRoute(far2, far1) != null);
+		show(line(), same(rebuilt.findRoute(points[0], points[5]).getLength(),
+						  dijkstra(example, points[0], points[5])));
+	}
+
+
+	public void testDistanceMatrix() {
+		show("DistanceMatrix");
+		ContractionHierarchy hierarchy = ContractionHierarchy.build(city);
+		GeoPoint[] sources = new GeoPoint[20];
+		GeoPoint[] targets = new GeoPoint[25];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+		}
+		for (int j = 0; j < targets.length; j++) {
+			targets[j] = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+		}
+		targets[0] = sources[0];
+		targets[1] = new GeoPoint(0, 0);
+		DistanceMatrix matrix = new DistanceMatrix(hierarchy, sources, targets);
+		show(line(), matrix.getSourceCount() == 20 && matrix.getTargetCount() == 25);
+		show(line(), matrix.getDistance(0, 0) == 0);
+		show(line(), matrix.getDistance(3, 1) == Double.POSITIVE_INFINITY);
+
+		boolean optimal = true, walking = true, routed = true;
+		double[] distances = matrix.toDistanceArray();
+		double[] minutes = matrix.toWalkingMinutesArray();
+		for (int i = 0; i < sources.length; i++) {
+			for (int j = 0; j < targets.length; j++) {
+				double expected = city.getNodeId(sources[i]) < 0 || city.getNodeId(targets[j]) < 0
+						? Double.POSITIVE_INFINITY : dijkstra(city, sources[i], targets[j]);
+				double distance = matrix.getDistance(i, j);
+				optimal &= distance == expected || same(distance, expected);
+				optimal &= distances[i * targets.length + j] == distance;
+				walking &= minutes[i * targets.length + j] == matrix.getWalkingMinutes(i, j);
+				walking &= distance == Double.POSITIVE_INFINITY ||
+						   same(matrix.getWalkingMinutes(i, j), 20 * distance);
+				Route route = matrix.getRoute(i, j);
+				routed &= route == null ? distance == 0 || distance == Double.POSITIVE_INFINITY
+										: connects(route, sources[i], targets[j]) && same(route.getLength(), distance);
+			}
+		}
+		show(line(), optimal);
+		show(line(), walking);
+		show(line(), routed);
+	}
+
+
+	/**
+	 * Returns whether a point is inside or on a convex polygon given counterclockwise.
+	 */
+	boolean inside(GeoPoint gp, List<GeoPoint> polygon) {
+		for (int i = 0; i < polygon.size(); i++) {
+			GeoPoint a = polygon.get(i), b = polygon.get((i + 1) % polygon.size());
+			long cross = (long) (b.getLongitude() - a.getLongitude()) * (gp.getLatitude() - a.getLatitude()) -
+						 (long) (b.getLatitude() - a.getLatitude()) * (gp.getLongitude() - a.getLongitude());
+			if (cross < 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	public void testIsochrone() {
+		show("WalkingIsochrone");
+		GeoPoint center = grid[30][30];
+		while (city.getNodeId(center) < 0) {
+			center = grid[random.nextInt(gridSize)][random.nextInt(gridSize)];
+		}
+		GeoPoint near = new GeoPoint(center.getLatitude() + 50, center.getLongitude() - 50);
+		show(line(), city.getNearestNode(near).equals(center));
+
+		// the grid finds the nearest node of all, for points among the nodes and far outside them
+		boolean nearest = true;
+		for (int i = 0; i < 300; i++) {
+			int spread = i < 200 ? 50000 : 2000000;
+			GeoPoint gp = new GeoPoint(center.getLatitude() + random.nextInt(2 * spread) - spread,
+					                   center.getLongitude() + random.nextInt(2 * spread) - spread);
+			double best = Double.POSITIVE_INFINITY;
+			for (int v = 0; v < city.getNodeCount(); v++) {
+				best = Math.min(best, gp.distanceTo(city.getNode(v)));
+			}
+			nearest &= gp.distanceTo(city.getNearestNode(gp)) == best;
+		}
+		show(line(), nearest);
+		RoadGraph single = new RoadGraph(Arrays.asList(new GeoSegment("Single", center, near)));
+		show(line(), single.getNearestNode(new GeoPoint(0, 0)).equals(center)
+				&& single.getNearestNode(near).equals(near));
+
+		WalkingIsochrone isochrone = new WalkingIsochrone(city, near, 0, 5, 10, 15);
+		show(line(), isochrone.getOrigin().equals(center));
+		show(line(), isochrone.getBudgetCount() == 4 && isochrone.getBudget(2) == 10);
+		show(line(), isochrone.getSegments(0).isEmpty());
+		show(line(), isochrone.getArea(0).size() == 1 && isochrone.getArea(0).get(0).equals(center));
+
+		boolean growing = true, fractions = true, reachable = true, enclosed = true;
+		for (int b = 1; b < 4; b++) {
+			growing &= isochrone.getSegments(b).size() > isochrone.getSegments(b - 1).size();
+			growing &= isochrone.getArea(b).size() >= 3;
+			double reach = isochrone.getBudget(b) / WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+			for (WalkingIsochrone.CoveredSegment covered : isochrone.getSegments(b)) {
+				GeoSegment gs = covered.getSegment();
+				double fraction = covered.getFraction();
+				fractions &= fraction > 0 && fraction <= 1;
+				// the fractions covered from either end agree with Dijkstra
+				double fromP1 = Math.max(0, Math.min(1, (reach - dijkstra(city, center, gs.getP1())) / gs.getLength()));
+				double fromP2 = Math.max(0, Math.min(1, (reach - dijkstra(city, center, gs.getP2())) / gs.getLength()));
+				reachable &= same(covered.getFromP1(), fromP1) && same(covered.getFromP2(), fromP2);
+				if (covered.getFromP1() > 0) {
+					enclosed &= inside(gs.getP1(), isochrone.getArea(b));
+				}
+				if (covered.getFromP2() > 0) {
+					enclosed &= inside(gs.getP2(), isochrone.getArea(b));
+				}
+			}
+		}
+		show(line(), growing);
+		show(line(), fractions);
+		show(line(), reachable);
+		show(line(), enclosed);
+
+		// a segment just beyond a budget is partly covered
+		WalkingIsochrone small = new WalkingIsochrone(example, points[0], 1);
+		double reach = 1.0 / WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+		boolean partial = false, exact = !small.getSegments(0).isEmpty();
+		for (WalkingIsochrone.CoveredSegment covered : small.getSegments(0)) {
+			partial |= covered.getFraction() < 1;
+			exact &= same(covered.getFraction() * covered.getSegment().getLength(),
+						  Math.min(covered.getSegment().getLength(), reach));
+		}
+		show(line(), small.getOrigin().equals(points[0]));
+		show(line(), partial);
+		show(line(), exact);
+	}
+
+
+	public static void main(String[] args) throws IOException {
+		RoadGraphTest test = new RoadGraphTest();
+		test.testAStar();
+		test.testContraction();
+		test.testLandmarks();
+		test.testDistanceMatrix();
+		test.testIsochrone();
+	}
+
+}
@@ -1,8 +1,7 @@
 package homework1;
 
-import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.List;
+import java.util.NoSuchElementException;
 
 /**
  * A Route is a path that traverses arbitrary GeoSegments, regardless
@@ -11,7 +10,9 @@ import java.util.List;
  * Routes are immutable. New Routes can be constructed by adding a segment 
  * to the end of a Route. An added segment must be properly oriented; that 
  * is, its p1 field must correspond to the end of the original Route, and
- * its p2 field corresponds to the end of the new Route.
+ * its p2 field corresponds to the end of the new Route. Routes can also be
+ * sliced into sub-routes and joined end to end, without copying their
+ * segments.
  * <p>
  * Because a Route is not necessarily straight, its length - the distance
  * traveled by following the path from start to end - is not necessarily
@@ -35,37 +36,94 @@ import java.util.List;
  **/
 public class Route {
 
-	private final List<GeoSegment> segments = new ArrayList<GeoSegment>();
+	// The segments of this are segments[from..to-1] of a buffer that may be
+	// shared with the Routes this one was built from and with the Routes
+	// built from this one. See SegmentBuffer.
+	private final SegmentBuffer segments;
+	private final int from;
+	private final int to;
+	// The features of this are the features firstFeature, ..., firstFeature +
+	// featureCount - 1 of the buffer, the first one clipped to start at from
+	private final int firstFeature;
+	private final int featureCount;
 	private final double length;
+	private final double startHeading;
+	private final double endHeading;
+	private final long hash;
 
 	/*
      * Abstraction function:
      *     map a list of segments into a line composed from list of geo-features, where each geo-feature is composed from the
      *     longest consecutive segments with the same name.
+     *     The list of segments is segments[from], ..., segments[to-1], and the
+     *     geo-features are the features firstFeature, ..., firstFeature + featureCount - 1
+     *     indexed by segments, the first one starting at from.
      *      
      * Representation invariant:
-     *     segments.size() != 0 &&
-     *     foreach i in 0..(segments.size()-2) => segments[i].p2 == segments[i+1].p1 
+     *     from < to &&
+     *     foreach i in from..(to-2) => segments[i].p2 == segments[i+1].p1 &&
+     *     segments.featureStart(firstFeature) <= from &&
+     *     (firstFeature + featureCount is the last feature of segments ||
+     *      segments.featureStart(firstFeature + featureCount) >= to) &&
+     *     length = sum (from <= i < to) . segments[i].length &&
+     *     hash = segments.hash(from, to)
      *  
      */
     /**
      * Checks if this's status is in line with the representation invariant. 
      * If this is not the case then the running of the program will stop since the checking operation is done 
      * using the "assert" function.
+     * The check walks all segments, so it is only done at CheckLevel FULL.
      * @effect if assert is enabled, program stops running in case the current status of this
      * 		   does not fulfill the representation invariant
      **/
   	private void checkRep() {
+  		if (CheckLevel.checkMethods()) {
+  			checkWholeRep();
+  		}
+  	}
+
+    /**
+     * Checks the representation invariant of a newly constructed this, as
+     * thoroughly as the current CheckLevel asks for: the whole invariant at
+     * level FULL, and only the link to the last segment at level CONSTRUCTION
+     * (the rest of the chain was checked when it was constructed).
+     * @effect if assert is enabled, program stops running in case the current status of this
+     * 		   does not fulfill the representation invariant
+     **/
+  	private void checkNewRep() {
+  		if (CheckLevel.checkMethods()) {
+  			checkWholeRep();
+  		} else if (CheckLevel.checkConstruction()) {
+  			assert(this.from < this.to);
+  			if (this.to - this.from > 1) {
+  				assert(this.segments.get(this.to - 2).getP2().equals(lastGeoSegment().getP1()));
+  			}
+  		}
+  	}
+
+    /**
+     * Checks the whole representation invariant of this, in O(n).
+     * @effect if assert is enabled, program stops running in case the current status of this
+     * 		   does not fulfill the representation invariant
+     **/
+  	private void checkWholeRep() {
   		
-  		assert(segments.size() != 0);
+  		assert(this.from < this.to);
   		
-  		var iter = segments.iterator();
-  		GeoSegment current = iter.next();
-  		while (iter.hasNext()) {
-  			var next = iter.next();
+  		GeoSegment current = this.segments.get(this.from);
+  		int features = 1;
+  		for (int i = this.from + 1; i < this.to; i++) {
+  			var next = this.segments.get(i);
   			assert(current.getP2().equals(next.getP1()));
+  			if (!SegmentBuffer.sameFeature(current, next)) {
+  				features++;
+  			}
   			current = next;
   		}
+  		assert(features == this.featureCount);
+  		assert(this.segments.featureStart(this.firstFeature) <= this.from);
+  		assert(this.hash == this.segments.hash(this.from, this.to));
   		
   	}
 
@@ -79,27 +137,38 @@ public class Route {
      *          r.end = gs.p2
      **/
   	public Route(GeoSegment gs) {
-  		this.segments.add(gs);
+  		this.segments = new SegmentBuffer(gs);
+  		this.from = 0;
+  		this.to = 1;
+  		this.firstFeature = 0;
+  		this.featureCount = 1;
   		this.length = gs.getLength();
-  		checkRep();
+  		// a zero-length segment has heading 0, which is also the heading of a zero-length route
+  		this.startHeading = gs.getHeading();
+  		this.endHeading = gs.getHeading();
+  		this.hash = SegmentBuffer.extendHash(0, gs);
+  		checkNewRep();
   	}
 
   	/**
   	 * Constructs a new Route.
-     * @effects Constructs a new Route.
-     *          Methods are invalid until class exit point;
+     * @requires segments[from..to-1] is a valid route made of the features firstFeature, ...,
+     *           firstFeature + featureCount - 1 of segments &&
+     *           length, startHeading, endHeading and hash are the ones of that route 
+     * @effects Constructs a new Route made of segments[from], ..., segments[to-1].
      **/
-  	private Route(List<GeoSegment> geoSegments) {
-  		this.segments.addAll(geoSegments);
-		
-  		double length = 0;
-		
-		var iter = geoSegments.iterator();
-		while (iter.hasNext()) {
-			length += iter.next().getLength();
-		}
-		this.length = length;
-		checkRep();
+  	private Route(SegmentBuffer segments, int from, int to, int firstFeature, int featureCount,
+  			      double length, double startHeading, double endHeading, long hash) {
+  		this.segments = segments;
+  		this.from = from;
+  		this.to = to;
+  		this.firstFeature = firstFeature;
+  		this.featureCount = featureCount;
+  		this.length = length;
+  		this.startHeading = startHeading;
+  		this.endHeading = endHeading;
+  		this.hash = hash;
+  		checkNewRep();
   	}
   	
 	/**
@@ -107,7 +176,7 @@ public class Route {
      * @return first GeoSegment in the list
      */
 	private GeoSegment firstGeoSegment() {
-		return this.segments.get(0);
+		return this.segments.get(this.from);
 	}
 
 	/**
@@ -115,7 +184,7 @@ public class Route {
      * @return last GeoSegment in the list
      */
 	private GeoSegment lastGeoSegment() {
-		return this.segments.get(this.segments.size() - 1);
+		return this.segments.get(this.to - 1);
 	}
 
     /**
@@ -147,21 +216,7 @@ public class Route {
    	 **/
   	public double getStartHeading() {
   		checkRep();
-  		// if the length of this route is zero then heading is 0 degrees according to the convention we chose
-  		if(this.length == 0) {
-  			return 0;
-  		}
-  		// route's length is not zero; find the first segment with a length longer than zero
-  		Iterator<GeoSegment> iter = this.segments.iterator();
-  		double heading = 0;
-  		while(iter.hasNext()) {
-  			heading = iter.next().getHeading();
-  			if (heading > 0) {
-  				break;
-  			}
-  		}
-  		checkRep();
-  		return heading;
+  		return this.startHeading;
   	}
 
 
@@ -174,22 +229,7 @@ public class Route {
      **/
   	public double getEndHeading() {
   		checkRep();
-  		// if the length of this route is zero then heading is 0 degrees according to the convention we chose
-  		if(this.length == 0) {
-  			return 0;
-  		}
-  		// route's length is not zero; find the last segment with a length longer than zero
-  		Iterator<GeoSegment> iter = this.segments.iterator();
-  		GeoSegment currentGeoSegment = null;
-  		double heading = 0;
-  		while(iter.hasNext()) {
-  			currentGeoSegment = iter.next();
-  			if (currentGeoSegment.getLength() > 0) {
-  				heading = currentGeoSegment.getHeading();
-  			}
-  		}
-  		checkRep();
-  		return heading;
+  		return this.endHeading;
   	}
 
 
@@ -205,6 +245,57 @@ public class Route {
   	}
 
 
+  	/**
+  	 * Returns the distance along the route to the start of one of its segments.
+  	 * @requires 0 <= i < number of geoSegments
+  	 * @return sum (0 <= j < i) . geoSegments[j].length, in kilometers, in O(1).
+  	 **/
+  	public double distanceToSegment(int i) {
+  		checkRep();
+  		return i == 0 ? 0 : this.segments.length(this.from, this.from + i);
+  	}
+
+
+  	/**
+  	 * Returns the segment the route is on at a given distance from its start.
+  	 * Segments of length 0 are never the answer, unless the whole route has length 0.
+  	 * @requires 0 <= km <= length
+  	 * @return the smallest i such that distanceToSegment(i) + geoSegments[i].length > km,
+  	 *         or the index of the last segment if there is none, in O(log n).
+  	 **/
+  	public int segmentIndexAt(double km) {
+  		checkRep();
+  		return this.segments.indexAt(this.from, this.to, km) - this.from;
+  	}
+
+
+  	/**
+  	 * Returns the location at a given distance along the route.
+  	 * @requires 0 <= km <= length
+  	 * @return the point km kilometers from the start when following the route, found
+  	 *         on the segment i = segmentIndexAt(km) by linear interpolation between its
+  	 *         p1 and p2 (rounded to millionths of degrees), in O(log n).
+  	 **/
+  	public GeoPoint pointAtDistance(double km) {
+  		checkRep();
+  		int i = this.segments.indexAt(this.from, this.to, km);
+  		GeoSegment gs = this.segments.get(i);
+  		double along = km - (i == this.from ? 0 : this.segments.length(this.from, i));
+  		if (gs.getLength() == 0 || along <= 0) {
+  			return gs.getP1();
+  		}
+  		if (along >= gs.getLength()) {
+  			return gs.getP2();
+  		}
+  		double fraction = along / gs.getLength();
+  		GeoPoint p1 = gs.getP1();
+  		GeoPoint p2 = gs.getP2();
+  		return new GeoPoint(
+  				p1.getLatitude() + (int) Math.round(fraction * (p2.getLatitude() - p1.getLatitude())),
+  				p1.getLongitude() + (int) Math.round(fraction * (p2.getLongitude() - p1.getLongitude())));
+  	}
+
+
   	/**
      * Creates a new route that is equal to this route with gs appended to
      * its end.
@@ -216,10 +307,106 @@ public class Route {
      **/
   	public Route addSegment(GeoSegment gs) {
   		checkRep();
-  		var geoSegments = new ArrayList<>(this.segments);
-  		geoSegments.add(gs);
+  		
+  		// Extend the shared buffer in place when this is its tip, otherwise
+  		// (this route was already extended before) branch off into a copy
+  		SegmentBuffer geoSegments = this.segments;
+  		int from = this.from;
+  		int firstFeature = this.firstFeature;
+  		if (!geoSegments.append(this.to, gs)) {
+  			geoSegments = this.segments.copyOf(this.from, this.to);
+  			from = 0;
+  			firstFeature = 0;
+  			geoSegments.append(this.to - this.from, gs);
+  		}
+  		
+  		// the start heading is the heading of the first segment with a positive heading,
+  		// the end heading is the one of the last segment with a positive length
+  		double startHeading = this.startHeading > 0 ? this.startHeading : gs.getHeading();
+  		double endHeading = gs.getLength() > 0 ? gs.getHeading() : this.endHeading;
+  		
+  		// gs either extends the last geo-feature or opens a new one
+  		int featureCount = SegmentBuffer.sameFeature(lastGeoSegment(), gs) ? this.featureCount : this.featureCount + 1;
+  		
+  		checkRep();
+  		return new Route(geoSegments, from, from + this.to - this.from + 1, firstFeature, featureCount,
+  				         this.length + gs.getLength(), startHeading, endHeading,
+  				         SegmentBuffer.extendHash(this.hash, gs));
+  	}
+
+
+    /**
+     * Returns a part of this route.
+     * <p>
+     * The new Route shares the segments of this one, so this takes
+     * O(log n) whatever the length of the part.
+     * @requires 0 <= fromIndex < toIndex <= number of geoSegments
+     * @return a new Route r such that r.geoSegments = geoSegments[fromIndex], ...,
+     *         geoSegments[toIndex-1]
+     **/
+  	public Route subRoute(int fromIndex, int toIndex) {
+  		checkRep();
+  		int from = this.from + fromIndex;
+  		int to = this.from + toIndex;
+  		
+  		// the features of the part are a range of the features of this, the first
+  		// of which may start before the part does
+  		int lastFeature = this.firstFeature + this.featureCount - 1;
+  		int firstFeature = this.segments.featureIndexAt(from, this.firstFeature, lastFeature);
+  		int endFeature = this.segments.featureIndexAt(to - 1, firstFeature, lastFeature);
+  		
+  		return new Route(this.segments, from, to, firstFeature, endFeature - firstFeature + 1,
+  				         this.segments.length(from, to), this.segments.startHeading(from, to),
+  				         this.segments.endHeading(from, to), this.segments.hash(from, to));
+  	}
+
+
+  	/**
+     * Creates a new route that is equal to this route followed by another one.
+     * <p>
+     * When other was sliced from this route's storage right after this one,
+     * nothing is copied. Otherwise the segments of other are appended in
+     * place after this route when it is the tip of its storage (see
+     * addSegment), and this route is copied first only when it is not.
+   	 * @requires other != null
+     * @return a new Route r such that
+     *         r.geoSegments = this.geoSegments followed by other.geoSegments &&
+     *         r.end = other.end &&
+     *         r.length = this.length + other.length
+     * @throws IllegalArgumentException if other.start is not this.end.
+     **/
+  	public Route concat(Route other) {
+  		checkRep();
+  		if (!getEnd().equals(other.getStart())) {
+  			throw new IllegalArgumentException("the route does not start where this route ends");
+  		}
+  		
+  		SegmentBuffer geoSegments = this.segments;
+  		int from = this.from;
+  		int firstFeature = this.firstFeature;
+  		if (other.segments != this.segments || other.from != this.to) {
+  			if (!geoSegments.appendAll(this.to, other.segments, other.from, other.to)) {
+  				geoSegments = this.segments.copyOf(this.from, this.to);
+  				from = 0;
+  				firstFeature = 0;
+  				geoSegments.appendAll(this.to - this.from, other.segments, other.from, other.to);
+  			}
+  		}
+  		
+  		int otherSize = other.to - other.from;
+  		double startHeading = this.startHeading > 0 ? this.startHeading : other.startHeading;
+  		double endHeading = other.length > 0 ? other.endHeading : this.endHeading;
+  		
+  		// the last feature of this and the first of other merge when they have the same name
+  		int featureCount = this.featureCount + other.featureCount;
+  		if (SegmentBuffer.sameFeature(lastGeoSegment(), other.firstGeoSegment())) {
+  			featureCount--;
+  		}
+  		
   		checkRep();
-  		return new Route(geoSegments);
+  		return new Route(geoSegments, from, from + this.to - this.from + otherSize, firstFeature, featureCount,
+  				         this.length + other.length, startHeading, endHeading,
+  				         SegmentBuffer.concatHash(this.hash, other.hash, otherSize));
   	}
 
 
@@ -243,29 +430,25 @@ public class Route {
      **/
   	public Iterator<GeoFeature> getGeoFeatures() {
   		checkRep();
-  		List<GeoFeature> geoFeatures = new ArrayList<GeoFeature>();
-  		Iterator<GeoSegment> iter = this.segments.iterator();
-  		
-  		var currentGeoFeature = new GeoFeature(iter.next());
-  		
-  		while(iter.hasNext()) {
-  			var currentGeoSegment = iter.next();
+  		// The features were indexed as the segments were appended; each one is
+  		// only materialized when the iterator reaches it
+  		return new Iterator<GeoFeature>() {
+  			private int next = 0;
   			
-  			// If current segment has same name as current feature, add it to the feature
-  			if (currentGeoFeature.getName() == currentGeoSegment.getName()) {
-  				currentGeoFeature = currentGeoFeature.addSegment(currentGeoSegment);
+  			public boolean hasNext() {
+  				return this.next < featureCount;
+  			}
   			
-  			// If current segment doesn't have the same name as the current feature,
-  			// the feature has ended. Add it to the features list and construct an new feature
-  			// with the current segment as it's starting segment
-  			} else {
-  				geoFeatures.add(currentGeoFeature);
-  				currentGeoFeature = new GeoFeature(currentGeoSegment);
+  			public GeoFeature next() {
+  				if (!hasNext()) {
+  					throw new NoSuchElementException();
+  				}
+  				int from = this.next == 0 ? Route.this.from : segments.featureStart(firstFeature + this.next);
+  				int to = this.next + 1 < featureCount ? segments.featureStart(firstFeature + this.next + 1) : Route.this.to;
+  				this.next++;
+  				return new GeoFeature(segments, from, to);
   			}
-  		}
-  		geoFeatures.add(currentGeoFeature);
-  		checkRep();
-  		return geoFeatures.iterator();
+  		};
   	}
 
 
@@ -285,7 +468,7 @@ public class Route {
      **/
   	public Iterator<GeoSegment> getGeoSegments() {
   		checkRep();
-  		return this.segments.iterator();
+  		return this.segments.iterator(this.from, this.to);
   	}
 
 
@@ -312,17 +495,17 @@ public class Route {
 	    	return false;
 	    }
 	    
-	    List<GeoSegment> gsList = ((Route) o).segments;
+	    Route other = (Route) o;
 	    
-	    // Compare size
-	    if (this.segments.size() != gsList.size()) {
+	    // Compare size and content hashes, so that different routes are told apart in O(1)
+	    if (this.to - this.from != other.to - other.from || this.hash != other.hash) {
 	    	checkRep();
 	    	return false;
 	    }
 	    
 	    // Compare elements
-	    for (int i = 0; i < this.segments.size(); i++) {
-	    	if (!this.segments.get(i).equals(gsList.get(i))) {
+	    for (int i = 0; i < this.to - this.from; i++) {
+	    	if (!this.segments.get(this.from + i).equals(other.segments.get(other.from + i))) {
 	    		checkRep();
 	    		return false;
 	    	}
@@ -335,12 +518,13 @@ public class Route {
 
     /**
      * Returns a hash code for this.
-     * @return a hash code for this.
+     * @return a hash code for this, computed from the hash codes of
+     *         geoSegments. It is maintained as segments are added, so this
+     *         takes O(1).
      **/
   	public int hashCode() {
   		checkRep();
-
-    	return 1;
+  		return (int) GeoPoint.mix(this.hash);
   	}
 
 
@@ -350,9 +534,9 @@ public class Route {
      **/
   	public String toString() {
   		checkRep();
-        String result = this.segments.get(0).toString();
+        String result = firstGeoSegment().toString();
         
-	    for (int i = 0; i < this.segments.size(); i++) {
+	    for (int i = this.from; i < this.to; i++) {
 	    	result = String.format("%s,%s", result, this.segments.get(i));
 	    }
 	    checkRep();
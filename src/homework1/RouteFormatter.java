@@ -1,13 +1,25 @@
 package homework1;
 
+import java.io.IOException;
+import java.util.stream.IntStream;
 
 /**
  * A RouteFormatter class knows how to create a textual description of
  * directions from one location to another. The class is abstract to
  * support different textual descriptions.
+ * <p>
+ * RouteFormatters hold no mutable state, so a single instance may be used
+ * by several threads at once. Subclasses should keep it that way, since
+ * computeDirectionsInParallel() calls computeLine() from several threads.
  */
 public abstract class RouteFormatter {
 
+	/**
+	 * Number of geographic features each task renders when directions are
+	 * computed in parallel.
+	 */
+	public static final int PARALLEL_CHUNK_SIZE = 1024;
+
   	/**
      * Give directions for following this Route, starting at its start point
      * and facing in the specified heading.
@@ -24,17 +36,143 @@ public abstract class RouteFormatter {
 		// feature in this route and concatenate the results into a single
 		// String.
   		
-  		var directions = new String();
+  		var directions = new StringBuilder();
+  		try {
+  			computeDirections(route, heading, directions);
+  		} catch (IOException e) {
+  			throw new AssertionError("StringBuilder does not throw IOException", e);
+  		}
+  		return directions.toString();
+  	}
+
+
+  	/**
+     * Give directions for following this Route, starting at its start point
+     * and facing in the specified heading, and append them to out.
+     * @requires route != null && out != null &&
+     * 			0 <= heading < 360
+     * @param route the route for which to print directions.
+   	 * @param heading the initial heading.
+   	 * @param out the sink the directions are appended to.
+     * @modifies out
+     * @effects appends to out the same newline-terminated directions that
+     *          computeDirections(route, heading) returns, one line at a time.
+     * @throws IOException if out throws it.
+     **/
+  	public void computeDirections(Route route, double heading, Appendable out) throws IOException {
   		var iter = route.getGeoFeatures();   
   		
   		double currentHeading = heading;
   		while (iter.hasNext()) {
   			var currentGeoFeature = iter.next(); 
-  			directions = directions.concat(computeLine(currentGeoFeature, currentHeading)); 
+  			computeLine(currentGeoFeature, currentHeading, out); 
   			currentHeading = currentGeoFeature.getEndHeading();
   		}
+  	}
+
+
+  	/**
+     * Give directions for following the route of a DirectionPlan.
+     * @requires plan != null
+     * @param plan the analysis of the route and initial heading for which
+     *        to print directions.
+     * @return the same directions as computeDirections(plan.route, plan.heading).
+     **/
+  	public String computeDirections(DirectionPlan plan) {
+  		var directions = new StringBuilder();
+  		try {
+  			computeDirections(plan, directions);
+  		} catch (IOException e) {
+  			throw new AssertionError("StringBuilder does not throw IOException", e);
+  		}
+  		return directions.toString();
+  	}
+
+
+  	/**
+     * Give directions for following the route of a DirectionPlan, and append
+     * them to out. Rendering a plan reuses its features, headings and turns, so
+     * several formatters can render the same plan for the cost of one analysis.
+     * @requires plan != null && out != null
+     * @param plan the analysis of the route and initial heading for which
+     *        to print directions.
+   	 * @param out the sink the directions are appended to.
+     * @modifies out
+     * @effects appends computeDirections(plan) to out, one line at a time.
+     * @throws IOException if out throws it.
+     **/
+  	public void computeDirections(DirectionPlan plan, Appendable out) throws IOException {
+  		for (int i = 0; i < plan.size(); i++) {
+  			computeLine(plan, i, out);
+  		}
+  	}
+
+
+  	/**
+     * Give directions for following this Route, rendering the lines on all
+     * available cores.
+     * @requires route != null && 
+     * 			0 <= heading < 360
+     * @param route the route for which to print directions.
+   	 * @param heading the initial heading.
+     * @return the same String as computeDirections(route, heading).
+     **/
+  	public String computeDirectionsInParallel(Route route, double heading) {
+  		return computeDirectionsInParallel(new DirectionPlan(route, heading));
+  	}
+
+
+  	/**
+     * Give directions for following the route of a DirectionPlan, rendering
+     * the lines on all available cores.
+     * <p>
+     * The only dependency between lines is the heading a feature is reached
+     * with, which the plan already holds. The features are therefore split
+     * into chunks of PARALLEL_CHUNK_SIZE that are rendered independently on
+     * the common fork/join pool, and the chunks are joined in order.
+     * @requires plan != null
+     * @param plan the analysis of the route and initial heading for which
+     *        to print directions.
+     * @return the same String as computeDirections(plan).
+     **/
+  	public String computeDirectionsInParallel(DirectionPlan plan) {
+  		int chunks = (plan.size() + PARALLEL_CHUNK_SIZE - 1) / PARALLEL_CHUNK_SIZE;
+  		if (chunks <= 1) {
+  			return computeDirections(plan);
+  		}
+  		
+  		StringBuilder[] rendered = IntStream.range(0, chunks).parallel()
+  				.mapToObj(chunk -> renderChunk(plan, chunk * PARALLEL_CHUNK_SIZE,
+  						                       Math.min(plan.size(), (chunk + 1) * PARALLEL_CHUNK_SIZE)))
+  				.toArray(StringBuilder[]::new);
   		
-  		return directions;
+  		int length = 0;
+  		for (StringBuilder chunk : rendered) {
+  			length += chunk.length();
+  		}
+  		var directions = new StringBuilder(length);
+  		for (StringBuilder chunk : rendered) {
+  			directions.append(chunk);
+  		}
+  		return directions.toString();
+  	}
+
+
+  	/**
+     * Renders the lines of a range of geographic features of a DirectionPlan.
+     * @requires plan != null && 0 <= from <= to <= plan.size
+     * @return the concatenation of the lines of plan.features[from..to-1].
+     **/
+  	private StringBuilder renderChunk(DirectionPlan plan, int from, int to) {
+  		var lines = new StringBuilder();
+  		try {
+  			for (int i = from; i < to; i++) {
+  				computeLine(plan, i, lines);
+  			}
+  		} catch (IOException e) {
+  			throw new AssertionError("StringBuilder does not throw IOException", e);
+  		}
+  		return lines;
   	}
 
 
@@ -51,6 +189,46 @@ public abstract class RouteFormatter {
   	public abstract String computeLine(GeoFeature geoFeature, double origHeading);
 
 
+  	/**
+     * Computes a single line of a multi-line directions String that
+     * represents the instructions for traversing a single geographic
+     * feature, and appends it to out.
+     * <p>
+     * This implementation appends the result of computeLine(geoFeature, origHeading).
+     * Subclasses are encouraged to override it to append the line directly.
+     * @requires geoFeature != null && out != null
+     * @param geoFeature the geographical feature to traverse.
+   	 * @param origHeading the initial heading.
+   	 * @param out the sink the line is appended to.
+     * @modifies out
+     * @effects appends computeLine(geoFeature, origHeading) to out.
+     * @throws IOException if out throws it.
+     */
+  	public void computeLine(GeoFeature geoFeature, double origHeading, Appendable out) throws IOException {
+  		out.append(computeLine(geoFeature, origHeading));
+  	}
+
+
+  	/**
+     * Computes the line of directions for a single geographic feature of a
+     * DirectionPlan, and appends it to out.
+     * <p>
+     * This implementation calls computeLine() with the feature and its
+     * incoming heading. Subclasses are encouraged to override it to use the
+     * values already computed by the plan.
+     * @requires plan != null && 0 <= i < plan.size && out != null
+     * @param plan the analysis of the route.
+     * @param i the index of the geographic feature in plan.
+   	 * @param out the sink the line is appended to.
+     * @modifies out
+     * @effects appends computeLine(plan.features[i], plan.incomingHeading[i]) to out.
+     * @throws IOException if out throws it.
+     */
+  	public void computeLine(DirectionPlan plan, int i, Appendable out) throws IOException {
+  		computeLine(plan.getGeoFeature(i), plan.getIncomingHeading(i), out);
+  	}
+
+
   	/**
      * Computes directions to turn based on the heading change.
      * @requires 0 <= oldHeading < 360 &&
@@ -69,21 +247,27 @@ public abstract class RouteFormatter {
      * U-turn               if 179 <= a
      * </pre>
      * and likewise for left turns.
+     * <p>
+     * This implementation returns getTurnString(TurnType.classify(origHeading, newHeading)).
+     * @see homework1.TurnType
      */
   	protected String getTurnString(double origHeading, double newHeading) {
-  		
-  		double heading = ((newHeading - origHeading + 360) % 360);
-  		var direction = heading < 180 ? "right" : "left";  // the other way around ?
-  		if(direction == "left") {
-  			heading = 360 - heading;
-  		}
-  		heading = Math.abs(heading);
-  		
-  		if (heading < 10 )  return "Continue";
-  		if (heading < 60 )  return String.format("Turn slight %s", direction);
-  		if (heading < 120 ) return String.format("Turn %s", direction);
-  		if (heading < 179 ) return String.format("Turn sharp %s", direction);
-  		return "U-turn";
+  		return getTurnString(TurnType.classify(origHeading, newHeading));
+  	}
+
+
+  	/**
+     * Computes directions for a kind of turn.
+     * <p>
+     * Lines rendered from a DirectionPlan take their turns from the plan,
+     * which classified them once, and describe them through this method.
+     * Subclasses that override it change the turns of every line.
+     * @requires turn != null
+     * @param turn the kind of turn to take.
+     * @return English directions for taking turn: turn.getPhrase().
+     */
+  	protected String getTurnString(TurnType turn) {
+  		return turn.getPhrase();
   	}
 
 }
@@ -139,7 +139,8 @@ public class RouteFormatterGUI extends JPanel {
 	 * 			defined by Route.addSegment(). In addition, updates the
 	 * 			walking direction and the driving direction of the GUI
 	 * 			with the return value of
-	 * 			RouteDirection.computeDirections(this.route,0)
+	 * 			RouteDirection.computeDirections(this.route,0), both computed
+	 * 			from one DirectionPlan
 	 */
 	public void addSegment(GeoSegment segment) {
 		DefaultListModel<GeoSegment> model =
@@ -157,10 +158,13 @@ public class RouteFormatterGUI extends JPanel {
 			this.route = this.route.addSegment(segment);
 		}
 		model.addElement(segment);
+		
+		// both kinds of directions are rendered from a single analysis of the route
+		DirectionPlan plan = new DirectionPlan(this.route, 0);
 		this.txtWalkingDirections.selectAll();
-		this.txtWalkingDirections.replaceSelection(walkingDirections.computeDirections(this.route, 0));
+		this.txtWalkingDirections.replaceSelection(walkingDirections.computeDirections(plan));
 		this.txtDrivingDirections.selectAll();
-		this.txtDrivingDirections.replaceSelection(drivingDirections.computeDirections(this.route, 0));
+		this.txtDrivingDirections.replaceSelection(drivingDirections.computeDirections(plan));
 	}
 
 
@@ -0,0 +1,73 @@
+package homework1;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A RouteRegistry keeps one canonical copy of each distinct Route it is
+ * given, so that equal Routes coming from different requests (the same
+ * commute, asked for again and again) become the same object.
+ * <p>
+ * Routes hash their contents in O(1) and compare their hashes before their
+ * segments, so looking a Route up costs O(1) for a new route and a single
+ * walk over the segments for a repeated one. Code that receives canonical
+ * Routes can then tell them apart by identity, e.g. to cache results per
+ * Route.
+ * <p>
+ * A RouteRegistry may be used by several threads at once. It holds on to
+ * every Route interned into it until it is cleared.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   routes : set of Route   // the canonical Routes, no two of them equal
+ * </pre>
+ */
+public class RouteRegistry {
+
+	private final ConcurrentHashMap<Route, Route> routes = new ConcurrentHashMap<Route, Route>();
+
+	/*
+	 * Abstraction function:
+	 *     routes = the keys of this.routes
+	 *
+	 * Representation invariant:
+	 *     foreach (k, v) in this.routes => k == v
+	 */
+
+	/**
+	 * Returns the canonical copy of a Route.
+	 * @requires route != null
+	 * @modifies this
+	 * @effects if no element of routes equals route, adds route to routes.
+	 * @return the element of routes that equals route.
+	 */
+	public Route intern(Route route) {
+		Route canonical = this.routes.putIfAbsent(route, route);
+		return canonical != null ? canonical : route;
+	}
+
+	/**
+	 * Returns whether a Route has a canonical copy in this.
+	 * @requires route != null
+	 * @return true iff some element of routes equals route.
+	 */
+	public boolean contains(Route route) {
+		return this.routes.containsKey(route);
+	}
+
+	/**
+	 * Returns the number of distinct Routes in this.
+	 * @return |routes|
+	 */
+	public int size() {
+		return this.routes.size();
+	}
+
+	/**
+	 * Forgets all the Routes of this.
+	 * @modifies this
+	 * @effects routes = {}
+	 */
+	public void clear() {
+		this.routes.clear();
+	}
+}
@@ -113,6 +113,128 @@ public class RouteTest {
 		show(line(), !rout1.equals(rout2));
 		rout2 = buildFeature(rout2, 0, 0);
 		show(line(), rout1.equals(rout2));			
+		
+		// extending an older version of a route must not affect the newer one
+		rout1 = buildFeature(null, 0, 3);
+		rout2 = rout1.addSegment(segments[4]);
+		rout3 = rout1.addSegment(segments[4]);
+		show(line(), rout2.equals(rout3));
+		show(line(), !rout2.equals(rout1));
+		rout3 = rout3.addSegment(segments[5]);
+		show(line(), !rout2.equals(rout3));
+		show(line(), rout2.getEnd().equals(segments[4].getP2()));
+		show(line(), rout3.getEnd().equals(segments[5].getP2()));
+		
+		// a long chain of appended segments keeps its length and segments
+		GeoSegment forth = segments[1];
+		GeoSegment back = segments[1].reverse();
+		Route longRoute = new Route(forth);
+		for (int i = 1; i < 10000; i++) {
+			longRoute = longRoute.addSegment(i % 2 == 0 ? forth : back);
+		}
+		show(line(), same(longRoute.getLength(), 10000 * forth.getLength()));
+		show(line(), longRoute.getEnd().equals(back.getP2()));
+		show(line(), longRoute.getStartHeading() == forth.getHeading());
+		show(line(), longRoute.getEndHeading() == back.getHeading());
+		
+		// the geo-features of a route group consecutive segments of the same name
+		rout1 = buildFeature(null, 0, 6);
+		var features = rout1.getGeoFeatures();
+		show(line(), features.next().equals(new GeoFeature(segments[0])));
+		show(line(), features.next().equals(new GeoFeature(segments[1]).addSegment(segments[2])));
+		show(line(), features.next().equals(new GeoFeature(segments[3]).addSegment(segments[4])));
+		show(line(), features.next().equals(new GeoFeature(segments[5])));
+		show(line(), features.next().equals(new GeoFeature(segments[6])));
+		show(line(), !features.hasNext());
+		
+		// branching off an older route does not change the features of the newer one
+		rout2 = rout1.addSegment(segments[7]);
+		rout3 = rout1.addSegment(segments[7]).addSegment(segments[8]);
+		int count2 = 0, count3 = 0;
+		for (var iter2 = rout2.getGeoFeatures(); iter2.hasNext(); iter2.next()) count2++;
+		for (var iter3 = rout3.getGeoFeatures(); iter3.hasNext(); iter3.next()) count3++;
+		show(line(), count2 == 5 && count3 == 6);
+		
+		// equal routes and features hash alike, however their segments are shared
+		show(line(), rout2.hashCode() == rout1.addSegment(segments[7]).hashCode());
+		show(line(), rout3.hashCode() == buildFeature(null, 0, 8).hashCode());
+		features = rout3.getGeoFeatures();
+		features.next();
+		show(line(), features.next().hashCode() == new GeoFeature(segments[1]).addSegment(segments[2]).hashCode());
+		show(line(), rout2.hashCode() != rout3.hashCode());
+		
+		// a registry keeps one copy of each distinct route
+		RouteRegistry registry = new RouteRegistry();
+		Route commute = buildFeature(null, 0, 6);
+		show(line(), registry.intern(commute) == commute);
+		show(line(), registry.intern(buildFeature(null, 0, 6)) == commute);
+		show(line(), registry.intern(rout3) == rout3);
+		show(line(), registry.contains(buildFeature(null, 0, 8)));
+		show(line(), !registry.contains(buildFeature(null, 0, 7)));
+		show(line(), registry.size() == 2);
+		
+		// positions along a route
+		rout1 = buildFeature(null, 0, 6);
+		double walked = 0;
+		boolean positionsOk = true;
+		for (int i = 0; i <= 6; i++) {
+			positionsOk &= same(rout1.distanceToSegment(i), walked);
+			if (segments[i].getLength() > 0) {
+				positionsOk &= rout1.segmentIndexAt(walked) == i;
+				positionsOk &= rout1.pointAtDistance(walked).equals(segments[i].getP1());
+				positionsOk &= rout1.segmentIndexAt(walked + segments[i].getLength() / 2) == i;
+			}
+			walked += segments[i].getLength();
+		}
+		show(line(), positionsOk);
+		show(line(), rout1.segmentIndexAt(rout1.getLength()) == 6);
+		show(line(), rout1.pointAtDistance(rout1.getLength()).equals(rout1.getEnd()));
+		show(line(), rout1.pointAtDistance(0).equals(rout1.getStart()));
+		GeoPoint middle = rout1.pointAtDistance(segments[0].getLength() / 2);
+		show(line(), same(middle.distanceTo(segments[0].getP1()), segments[0].getLength() / 2));
+		show(line(), same(middle.distanceTo(segments[0].getP2()), segments[0].getLength() / 2));
+		show(line(), longRoute.segmentIndexAt(4321.5 * forth.getLength()) == 4321);
+		
+		// slicing a route shares its segments and clips its features
+		rout1 = buildFeature(null, 0, 6);
+		Route part = rout1.subRoute(2, 5);
+		show(line(), part.equals(buildFeature(null, 2, 4)));
+		show(line(), part.hashCode() == buildFeature(null, 2, 4).hashCode());
+		show(line(), same(part.getLength(), buildFeature(null, 2, 4).getLength()));
+		features = part.getGeoFeatures();
+		show(line(), features.next().equals(new GeoFeature(segments[2])));
+		show(line(), features.next().equals(new GeoFeature(segments[3]).addSegment(segments[4])));
+		show(line(), !features.hasNext());
+		show(line(), same(part.distanceToSegment(1), segments[2].getLength()));
+		show(line(), part.subRoute(1, 2).equals(new Route(segments[3])));
+		show(line(), rout1.subRoute(0, 7) .equals(rout1));
+		
+		// joining routes, in place, without copying, and by copying an older route
+		Route head = rout1.subRoute(0, 3);
+		Route tail = rout1.subRoute(3, 7);
+		show(line(), head.concat(tail).equals(rout1));
+		show(line(), buildFeature(null, 0, 2).concat(buildFeature(null, 3, 6)).equals(rout1));
+		Route older = buildFeature(null, 0, 3);
+		older.addSegment(segments[4]);
+		show(line(), older.concat(buildFeature(null, 4, 6)).equals(rout1));
+		Route joined = head.concat(tail).addSegment(segments[7]);
+		show(line(), joined.equals(buildFeature(null, 0, 7)));
+		int joinedFeatures = 0;
+		for (var iter2 = joined.getGeoFeatures(); iter2.hasNext(); iter2.next()) joinedFeatures++;
+		show(line(), joinedFeatures == 5);
+		boolean thrown = false;
+		try {
+			head.concat(rout1);
+		} catch (IllegalArgumentException e) {
+			thrown = true;
+		}
+		show(line(), thrown);
+		
+		// rerouting the remaining part of a long trip
+		Route remaining = longRoute.subRoute(9000, 10000);
+		show(line(), same(remaining.getLength(), 1000 * forth.getLength()));
+		show(line(), remaining.getStart().equals(forth.getP1()));
+		show(line(), longRoute.subRoute(0, 9000).concat(remaining).equals(longRoute));
   	}
 
 
@@ -0,0 +1,150 @@
+package homework1;
+
+import java.util.Arrays;
+
+/**
+ * A SearchSpace holds the per-node state of a shortest-path search over a
+ * graph of a fixed number of nodes: the tentative distance of each node,
+ * the edge it was reached by, and whether it is settled.
+ * <p>
+ * Every entry is stamped with the generation of the search that wrote it,
+ * and entries of older generations read as unvisited. Starting a new
+ * search therefore takes O(1) instead of clearing arrays as large as the
+ * graph, so a SearchSpacePool can lend the same SearchSpace to search
+ * after search without allocating.
+ * <p>
+ * Package-private; this class is an implementation detail of the graph
+ * searches. A SearchSpace must only be used by one thread at a time.
+ */
+final class SearchSpace {
+
+	/** The parent of nodes that were not reached through an edge. */
+	static final int NO_EDGE = -1;
+
+	private final double[] distances;
+	private final int[] parentNodes;
+	private final int[] parentEdges;
+	private final int[] reachedIn;
+	private final int[] settledIn;
+	private int generation;
+
+	final NodeHeap heap = new NodeHeap();
+
+	/*
+	 * Abstraction function:
+	 *     node v is reached iff reachedIn[v] == generation, in which case its
+	 *     distance is distances[v] and it was reached over the edge parentEdges[v]
+	 *     from parentNodes[v]. It is settled iff settledIn[v] == generation.
+	 *
+	 * Representation invariant:
+	 *     all the arrays have the same length && generation >= 1 &&
+	 *     foreach v => reachedIn[v] <= generation && settledIn[v] <= generation
+	 */
+
+	/**
+	 * Constructs a new SearchSpace.
+	 * @requires nodeCount >= 0
+	 * @effects Constructs a new SearchSpace for graphs of nodeCount nodes, in which
+	 *          no node is reached.
+	 */
+	SearchSpace(int nodeCount) {
+		this.distances = new double[nodeCount];
+		this.parentNodes = new int[nodeCount];
+		this.parentEdges = new int[nodeCount];
+		this.reachedIn = new int[nodeCount];
+		this.settledIn = new int[nodeCount];
+		this.generation = 1;
+	}
+
+	/**
+	 * Returns the number of nodes this was made for.
+	 * @return the number of nodes of the graphs this can search.
+	 */
+	int nodeCount() {
+		return this.distances.length;
+	}
+
+	/**
+	 * Starts a new search.
+	 * @modifies this
+	 * @effects marks all nodes unreached and unsettled, and empties the heap, in O(1)
+	 *          (except once every 2^31 searches).
+	 */
+	void reset() {
+		this.heap.clear();
+		if (++this.generation == Integer.MAX_VALUE) {
+			Arrays.fill(this.reachedIn, 0);
+			Arrays.fill(this.settledIn, 0);
+			this.generation = 1;
+		}
+	}
+
+	/**
+	 * Returns the tentative distance of a node.
+	 * @requires 0 <= v < nodeCount()
+	 * @return the distance v was reached at, or +infinity if it was not reached.
+	 */
+	double distance(int v) {
+		return this.reachedIn[v] == this.generation ? this.distances[v] : Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Returns whether a node was reached.
+	 * @requires 0 <= v < nodeCount()
+	 * @return true iff v was reached by the current search.
+	 */
+	boolean isReached(int v) {
+		return this.reachedIn[v] == this.generation;
+	}
+
+	/**
+	 * Records that a node was reached.
+	 * @requires 0 <= v < nodeCount()
+	 * @modifies this
+	 * @effects marks v reached at the given distance, over parentEdge from parentNode
+	 *          (or over NO_EDGE from NO_EDGE for the origin of the search).
+	 */
+	void reach(int v, double distance, int parentNode, int parentEdge) {
+		this.distances[v] = distance;
+		this.parentNodes[v] = parentNode;
+		this.parentEdges[v] = parentEdge;
+		this.reachedIn[v] = this.generation;
+	}
+
+	/**
+	 * Returns the node a reached node was reached from.
+	 * @requires isReached(v)
+	 * @return the node v was reached from, or NO_EDGE for the origin of the search.
+	 */
+	int parentNode(int v) {
+		return this.parentNodes[v];
+	}
+
+	/**
+	 * Returns the edge a reached node was reached by.
+	 * @requires isReached(v)
+	 * @return the edge v was reached by, or NO_EDGE for the origin of the search.
+	 */
+	int parentEdge(int v) {
+		return this.parentEdges[v];
+	}
+
+	/**
+	 * Returns whether a node is settled.
+	 * @requires 0 <= v < nodeCount()
+	 * @return true iff v was settled by the current search.
+	 */
+	boolean isSettled(int v) {
+		return this.settledIn[v] == this.generation;
+	}
+
+	/**
+	 * Records that a node is settled, that is, that its distance is final.
+	 * @requires isReached(v)
+	 * @modifies this
+	 * @effects marks v settled.
+	 */
+	void settle(int v) {
+		this.settledIn[v] = this.generation;
+	}
+}
@@ -0,0 +1,80 @@
+package homework1;
+
+import java.util.ArrayDeque;
+
+/**
+ * A SearchSpacePool lends the SearchSpaces of one graph to the searches
+ * that run over it, so that search after search reuses a few SearchSpaces
+ * instead of allocating arrays as large as the graph.
+ * <p>
+ * The pool is owned by the graph and goes away with it. Unlike a
+ * ThreadLocal of the graph, it does not leave a SearchSpace behind in every
+ * pool thread that ever searched it, so a discarded graph is not kept alive
+ * by long-lived threads. It keeps at most one idle SearchSpace per
+ * processor, plus one; more are created while more searches run at once,
+ * and dropped when they are returned.
+ * <p>
+ * Package-private; this class is an implementation detail of the graph
+ * searches. A SearchSpacePool may be used by several threads at once.
+ */
+final class SearchSpacePool {
+
+	private static final int MAX_IDLE = Runtime.getRuntime().availableProcessors() + 1;
+
+	private final int nodeCount;
+	private final ArrayDeque<SearchSpace> idle = new ArrayDeque<SearchSpace>();
+
+	/*
+	 * Abstraction function:
+	 *     the pool lends SearchSpaces of nodeCount nodes; idle holds the ones
+	 *     returned to it and not lent again since.
+	 *
+	 * Representation invariant:
+	 *     nodeCount >= 0 && idle.size() <= MAX_IDLE &&
+	 *     foreach space in idle => space.nodeCount() == nodeCount
+	 */
+
+	/**
+	 * Constructs a new SearchSpacePool.
+	 * @requires nodeCount >= 0
+	 * @effects Constructs a new, empty pool of SearchSpaces for a graph of
+	 *          nodeCount nodes.
+	 */
+	SearchSpacePool(int nodeCount) {
+		this.nodeCount = nodeCount;
+	}
+
+	/**
+	 * Lends a SearchSpace.
+	 * @modifies this
+	 * @effects removes a SearchSpace from the idle ones, if there is any.
+	 * @return a SearchSpace for a graph of nodeCount nodes that no other
+	 *         borrower holds. It must be given back with release() once
+	 *         the search is done with it.
+	 */
+	SearchSpace borrow() {
+		synchronized (this.idle) {
+			SearchSpace space = this.idle.poll();
+			if (space != null) {
+				return space;
+			}
+		}
+		return new SearchSpace(this.nodeCount);
+	}
+
+	/**
+	 * Gives a SearchSpace back.
+	 * @requires space was lent by this and was not given back since
+	 * @modifies this
+	 * @effects keeps space for another borrower, unless enough SearchSpaces
+	 *          are idle already.
+	 */
+	void release(SearchSpace space) {
+		assert(space.nodeCount() == this.nodeCount);
+		synchronized (this.idle) {
+			if (this.idle.size() < MAX_IDLE) {
+				this.idle.push(space);
+			}
+		}
+	}
+}
@@ -0,0 +1,401 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A SegmentBuffer is a growable, append-only store of GeoSegments that is
+ * shared between immutable Routes and GeoFeatures.
+ * <p>
+ * Each Route only looks at a prefix of the buffer and never changes it.
+ * A new segment can be written directly into the buffer only by the Route
+ * whose prefix covers the whole buffer (the "tip" of the buffer), so that
+ * a chain of addSegment() calls shares a single buffer and costs amortized
+ * O(1) per call. A Route that is not the tip of its buffer (that is, an
+ * older version that is being extended a second time) copies its prefix
+ * into a new buffer first.
+ * <p>
+ * Alongside the segments, the buffer keeps an index of the geographic
+ * features they form: the cumulative length of the segments and the index
+ * at which each feature (maximal run of segments with the same name)
+ * starts. The index is extended on every append, so a Route can list its
+ * GeoFeatures without regrouping its segments.
+ * <p>
+ * The buffer also keeps a polynomial hash of every prefix of the segments,
+ * from which the hash of any range follows in O(log n), so that Routes and
+ * GeoFeatures hash their contents without walking them.
+ * <p>
+ * Package-private; this class is an implementation detail of Route and
+ * GeoFeature.
+ */
+final class SegmentBuffer {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	// The arrays are replaced (never shrunk) when the buffer grows. Elements
+	// below size are written once and never changed afterwards, so a reader
+	// that holds a Route covering index i may read element i without locking.
+	private volatile GeoSegment[] segments;
+	private volatile double[] cumulativeLengths;
+	private volatile long[] prefixHashes;
+	private volatile int[] featureStarts;
+	private int size;
+	private int featureCount;
+
+	/*
+	 * Abstraction function:
+	 *     a SegmentBuffer represents the sequence segments[0], ..., segments[size-1].
+	 *     cumulativeLengths[i] is the total length of segments[0], ..., segments[i], and
+	 *     featureStarts[0], ..., featureStarts[featureCount-1] are the indices at which
+	 *     the geographic features of that sequence start.
+	 *     prefixHashes[i] = extendHash(prefixHashes[i-1], segments[i]), where prefixHashes[-1] = 0.
+	 *
+	 * Representation invariant:
+	 *     segments != null && 0 <= size <= segments.length &&
+	 *     cumulativeLengths.length == segments.length && prefixHashes.length == segments.length &&
+	 *     foreach i in 0..(size-1) => segments[i] != null &&
+	 *     featureStarts[0] == 0 && featureStarts is strictly increasing &&
+	 *     foreach i in 1..(size-1) => (i is in featureStarts <=> !sameFeature(segments[i-1], segments[i]))
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.segments != null);
+		assert(this.size >= 0 && this.size <= this.segments.length);
+		assert(this.cumulativeLengths.length == this.segments.length);
+		assert(this.prefixHashes.length == this.segments.length);
+		assert(this.featureCount >= 1 && this.featureStarts[0] == 0);
+	}
+
+	/**
+	 * Returns whether two consecutive segments belong to the same geographic feature.
+	 * @requires previous != null && next != null
+	 * @return true iff previous and next have the same name.
+	 **/
+	static boolean sameFeature(GeoSegment previous, GeoSegment next) {
+		return previous.getNameId() == next.getNameId();
+	}
+
+	/**
+	 * Returns the hash of a sequence of segments extended by one segment.
+	 * @requires gs != null
+	 * @return the polynomial hash hash * 31 + gs.hashCode(), where hash is the hash
+	 *         of a sequence of segments (0 for the empty sequence). Arithmetic wraps
+	 *         around, so the result is exact modulo 2^64.
+	 **/
+	static long extendHash(long hash, GeoSegment gs) {
+		return hash * 31 + gs.hashCode();
+	}
+
+	/**
+	 * Returns the hash of the concatenation of two sequences of segments.
+	 * @requires rightSize >= 0
+	 * @return the hash of s1 followed by s2, where left is the hash of s1 and
+	 *         right is the hash of s2, a sequence of rightSize segments.
+	 **/
+	static long concatHash(long left, long right, int rightSize) {
+		return left * power31(rightSize) + right;
+	}
+
+	/**
+	 * Computes a power of 31.
+	 * @requires exponent >= 0
+	 * @return 31^exponent modulo 2^64, in O(log exponent).
+	 **/
+	private static long power31(int exponent) {
+		long result = 1;
+		long base = 31;
+		while (exponent > 0) {
+			if ((exponent & 1) != 0) {
+				result *= base;
+			}
+			base *= base;
+			exponent >>>= 1;
+		}
+		return result;
+	}
+
+	/**
+	 * Constructs a new SegmentBuffer.
+	 * @requires gs != null
+	 * @effects Constructs a new SegmentBuffer that contains only gs.
+	 **/
+	SegmentBuffer(GeoSegment gs) {
+		this.segments = new GeoSegment[INITIAL_CAPACITY];
+		this.cumulativeLengths = new double[INITIAL_CAPACITY];
+		this.prefixHashes = new long[INITIAL_CAPACITY];
+		this.featureStarts = new int[INITIAL_CAPACITY];
+		this.segments[0] = gs;
+		this.cumulativeLengths[0] = gs.getLength();
+		this.prefixHashes[0] = extendHash(0, gs);
+		this.featureStarts[0] = 0;
+		this.size = 1;
+		this.featureCount = 1;
+		checkRep();
+	}
+
+	/**
+	 * Constructs a new SegmentBuffer.
+	 * @requires source != null && 0 <= from < to <= source.size
+	 * @effects Constructs a new SegmentBuffer that contains a copy of
+	 *          source[from], ..., source[to-1].
+	 **/
+	private SegmentBuffer(SegmentBuffer source, int from, int to) {
+		int count = to - from;
+		int capacity = Math.max(INITIAL_CAPACITY, 2 * count);
+		GeoSegment[] segments = new GeoSegment[capacity];
+		double[] cumulativeLengths = new double[capacity];
+		long[] prefixHashes = new long[capacity];
+		int[] featureStarts = new int[capacity];
+		System.arraycopy(source.segments, from, segments, 0, count);
+		
+		// the index is rebuilt rather than copied, since a range may start in the middle of a feature
+		int featureCount = 1;
+		cumulativeLengths[0] = segments[0].getLength();
+		prefixHashes[0] = extendHash(0, segments[0]);
+		for (int i = 1; i < count; i++) {
+			cumulativeLengths[i] = cumulativeLengths[i - 1] + segments[i].getLength();
+			prefixHashes[i] = extendHash(prefixHashes[i - 1], segments[i]);
+			if (!sameFeature(segments[i - 1], segments[i])) {
+				featureStarts[featureCount++] = i;
+			}
+		}
+		
+		this.segments = segments;
+		this.cumulativeLengths = cumulativeLengths;
+		this.prefixHashes = prefixHashes;
+		this.featureStarts = featureStarts;
+		this.size = count;
+		this.featureCount = featureCount;
+		checkRep();
+	}
+
+	/**
+	 * Returns a new buffer holding a copy of the given range of this.
+	 * @requires 0 <= from < to <= this.size
+	 * @return a new SegmentBuffer b such that b[i] = this[from + i]
+	 *         for all 0 <= i < to - from
+	 **/
+	SegmentBuffer copyOf(int from, int to) {
+		return new SegmentBuffer(this, from, to);
+	}
+
+	/**
+	 * Returns the i'th segment of this.
+	 * @requires 0 <= i < size
+	 * @return the i'th segment of this.
+	 **/
+	GeoSegment get(int i) {
+		return this.segments[i];
+	}
+
+	/**
+	 * Returns the total length of a range of segments of this.
+	 * @requires 0 <= from < to <= size
+	 * @return sum (from <= i < to) . this[i].length
+	 **/
+	double length(int from, int to) {
+		double[] cumulative = this.cumulativeLengths;
+		return from == 0 ? cumulative[to - 1] : cumulative[to - 1] - cumulative[from - 1];
+	}
+
+	/**
+	 * Finds the segment of a range of this at a given distance from the start of the range.
+	 * @requires 0 <= from < to <= size && distance >= 0
+	 * @return the smallest i in from..(to-1) such that length(from, i + 1) > distance,
+	 *         or to - 1 if there is none, found by binary search in O(log (to - from)).
+	 **/
+	int indexAt(int from, int to, double distance) {
+		double[] cumulative = this.cumulativeLengths;
+		double target = (from == 0 ? 0 : cumulative[from - 1]) + distance;
+		int low = from;
+		int high = to - 1;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (cumulative[middle] > target) {
+				high = middle;
+			} else {
+				low = middle + 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Returns the hash of a range of segments of this.
+	 * @requires 0 <= from < to <= size
+	 * @return the hash of this[from], ..., this[to-1], which is the result of
+	 *         extendHash() applied to them in order starting from 0, in O(log (to - from)).
+	 **/
+	long hash(int from, int to) {
+		long[] prefix = this.prefixHashes;
+		return from == 0 ? prefix[to - 1] : prefix[to - 1] - prefix[from - 1] * power31(to - from);
+	}
+
+	/**
+	 * Returns the direction of travel at the start of a range of segments of this.
+	 * @requires 0 <= from < to <= size
+	 * @return the heading of the first segment in this[from..to-1] with a positive
+	 *         heading, or 0 if there is no such segment.
+	 **/
+	double startHeading(int from, int to) {
+		// usually the very first segment qualifies
+		for (int i = from; i < to; i++) {
+			double heading = this.segments[i].getHeading();
+			if (heading > 0) {
+				return heading;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns the direction of travel at the end of a range of segments of this.
+	 * @requires 0 <= from < to <= size
+	 * @return the heading of the last segment in this[from..to-1] with a positive
+	 *         length, or 0 if there is no such segment.
+	 **/
+	double endHeading(int from, int to) {
+		// usually the very last segment qualifies
+		for (int i = to - 1; i >= from; i--) {
+			if (this.segments[i].getLength() > 0) {
+				return this.segments[i].getHeading();
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Returns an Iterator over a range of segments of this.
+	 * @requires 0 <= from <= to <= size
+	 * @return an Iterator over this[from], ..., this[to-1] that does not
+	 *         support remove().
+	 **/
+	Iterator<GeoSegment> iterator(int from, int to) {
+		return new Iterator<GeoSegment>() {
+			private int next = from;
+
+			public boolean hasNext() {
+				return this.next < to;
+			}
+
+			public GeoSegment next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return get(this.next++);
+			}
+		};
+	}
+
+	/**
+	 * Returns the index at which the f'th geographic feature of this starts.
+	 * @requires 0 <= f < number of features in this
+	 * @return the index of the first segment of the f'th feature of this.
+	 **/
+	int featureStart(int f) {
+		return this.featureStarts[f];
+	}
+
+	/**
+	 * Finds the geographic feature of this that a segment belongs to.
+	 * @requires 0 <= low <= high < number of features in this &&
+	 *           featureStart(low) <= i && the feature of i is at most high
+	 * @return the largest f in low..high such that featureStart(f) <= i,
+	 *         found by binary search.
+	 **/
+	int featureIndexAt(int i, int low, int high) {
+		int[] starts = this.featureStarts;
+		while (low < high) {
+			int middle = (low + high + 1) >>> 1;
+			if (starts[middle] <= i) {
+				low = middle;
+			} else {
+				high = middle - 1;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * Appends gs to the end of this, provided that the caller is the tip
+	 * of the buffer.
+	 * @requires gs != null
+	 * @modifies this
+	 * @effects if expectedSize == this.size, appends gs to the end of this.
+	 *          Otherwise this is left unchanged.
+	 * @return true iff gs was appended.
+	 **/
+	synchronized boolean append(int expectedSize, GeoSegment gs) {
+		if (this.size != expectedSize) {
+			return false;
+		}
+		add(gs);
+		checkRep();
+		return true;
+	}
+
+	/**
+	 * Appends a range of segments of a buffer to the end of this, provided
+	 * that the caller is the tip of the buffer.
+	 * @requires source != null && 0 <= from < to <= source.size &&
+	 *           source[from].p1 is the end of this
+	 * @modifies this
+	 * @effects if expectedSize == this.size, appends source[from], ..., source[to-1]
+	 *          to the end of this. Otherwise this is left unchanged.
+	 * @return true iff the segments were appended.
+	 **/
+	synchronized boolean appendAll(int expectedSize, SegmentBuffer source, int from, int to) {
+		if (this.size != expectedSize) {
+			return false;
+		}
+		for (int i = from; i < to; i++) {
+			add(source.get(i));
+		}
+		checkRep();
+		return true;
+	}
+
+	/**
+	 * Appends gs to the end of this.
+	 * @requires gs != null && the caller holds the lock of this
+	 * @modifies this
+	 * @effects appends gs to the end of this, extending the index.
+	 **/
+	private void add(GeoSegment gs) {
+		if (this.size == this.segments.length) {
+			grow();
+		}
+		
+		int i = this.size;
+		this.segments[i] = gs;
+		this.cumulativeLengths[i] = this.cumulativeLengths[i - 1] + gs.getLength();
+		this.prefixHashes[i] = extendHash(this.prefixHashes[i - 1], gs);
+		if (!sameFeature(this.segments[i - 1], gs)) {
+			if (this.featureCount == this.featureStarts.length) {
+				this.featureStarts = Arrays.copyOf(this.featureStarts, 2 * this.featureCount);
+			}
+			this.featureStarts[this.featureCount++] = i;
+		}
+		this.size++;
+	}
+
+	/**
+	 * Doubles the capacity of this.
+	 * @modifies this
+	 * @effects replaces the arrays of this with copies of twice the length.
+	 **/
+	private void grow() {
+		int capacity = 2 * this.segments.length;
+		this.segments = Arrays.copyOf(this.segments, capacity);
+		this.cumulativeLengths = Arrays.copyOf(this.cumulativeLengths, capacity);
+		this.prefixHashes = Arrays.copyOf(this.prefixHashes, capacity);
+	}
+}
@@ -0,0 +1,119 @@
+package homework1;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The StreetNameTable assigns each distinct street name a small int id,
+ * and keeps a single canonical String for each name.
+ * <p>
+ * GeoSegments carry the id of their name rather than the name itself, so
+ * telling whether two segments belong to the same street, and thus to the
+ * same GeoFeature, is an int comparison. Names read from files are fresh
+ * String objects, and are still grouped correctly; and the segments of a
+ * street share a single copy of its name.
+ * <p>
+ * The table is a process-wide intern pool, like the one behind
+ * String.intern(), and it is so on purpose: GeoSegments are values that
+ * can be made anywhere, with no graph or buffer owning them, and segments
+ * made apart must still compare their names by id. Ids are assigned in the
+ * order names are first seen, starting at 0, and are never reused, so
+ * every name stays reachable for the life of the JVM. The table suits the
+ * street names of the maps a program loads, which are few and live as long
+ * as it does, and not arbitrary text. It may be used by several threads at
+ * once.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   names : sequence of String   // the distinct names seen so far; the id of names[i] is i
+ * </pre>
+ */
+public final class StreetNameTable {
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private static final ConcurrentHashMap<String, Integer> ids = new ConcurrentHashMap<String, Integer>();
+
+	// Written only under the class lock, and read without it: names[i] is set
+	// before the id i is published through ids and count, so a reader holding
+	// an id finds its name
+	private static volatile String[] names = new String[INITIAL_CAPACITY];
+	private static volatile int count = 0;
+
+	/*
+	 * Abstraction function:
+	 *     names = names[0], ..., names[count-1]
+	 *
+	 * Representation invariant:
+	 *     0 <= count <= names.length && ids.size() == count &&
+	 *     foreach i in 0..(count-1) => ids.get(names[i]) == i
+	 */
+
+	private StreetNameTable() {
+	}
+
+	/**
+	 * Returns the id of a street name, assigning it a new id if it has none.
+	 * @requires name != null
+	 * @modifies names
+	 * @effects if name is not in names, appends it to names.
+	 * @return the index i such that names[i].equals(name).
+	 */
+	public static int idOf(String name) {
+		Integer id = ids.get(name);
+		return id != null ? id : assign(name);
+	}
+
+	/**
+	 * Returns the street name of an id.
+	 * @requires 0 <= id < size()
+	 * @return names[id], the canonical String for that name.
+	 */
+	public static String nameOf(int id) {
+		return names[id];
+	}
+
+	/**
+	 * Returns the canonical copy of a street name.
+	 * @requires name != null
+	 * @modifies names
+	 * @effects if name is not in names, appends it to names.
+	 * @return the element of names that equals name.
+	 */
+	public static String intern(String name) {
+		return nameOf(idOf(name));
+	}
+
+	/**
+	 * Returns the number of distinct street names seen so far.
+	 * @return |names|
+	 */
+	public static int size() {
+		return count;
+	}
+
+	/**
+	 * Assigns a new id to a street name.
+	 * @requires name != null
+	 * @modifies names
+	 * @effects if name is not in names, appends it to names.
+	 * @return the index i such that names[i].equals(name).
+	 */
+	private static synchronized int assign(String name) {
+		// another thread may have assigned it since idOf() looked
+		Integer existing = ids.get(name);
+		if (existing != null) {
+			return existing;
+		}
+		String[] current = names;
+		if (count == current.length) {
+			current = Arrays.copyOf(current, 2 * count);
+		}
+		int id = count;
+		current[id] = name;
+		names = current;
+		ids.put(name, id);
+		count = id + 1;
+		return id;
+	}
+}
@@ -0,0 +1,172 @@
+package homework1;
+
+import java.io.IOException;
+
+/**
+ * A TemplateRouteFormatter is a RouteFormatter whose lines are rendered by
+ * a LineTemplate. The template is compiled once, when the formatter is
+ * constructed, so computing a line does not parse a format string.
+ * <p>
+ * A new kind of directions is defined by passing its template to the
+ * constructor, as DrivingRouteFormatter and WalkingRouteFormatter do. The
+ * {turn} placeholder is filled in by getTurnString(), so subclasses that
+ * override it change the turns of every line. Lines of a DirectionPlan use
+ * the turns the plan classified, described by getTurnString(TurnType),
+ * unless a subclass overrides getTurnString(double, double), which then
+ * describes them from their headings.
+ * <p>
+ * Lines are rendered straight into the Appendable the directions go to.
+ * A subclass may still override computeLine(GeoFeature, double) to write
+ * its own lines: the formatter then appends what that method returns in
+ * every line it writes, including those of computeDirections(),
+ * computeDirectionsInParallel() and the rendering of DirectionPlans.
+ * <p>
+ * Like all RouteFormatters, a TemplateRouteFormatter holds no mutable state
+ * and may be shared between threads.
+ */
+public abstract class TemplateRouteFormatter extends RouteFormatter {
+
+	private final LineTemplate template;
+
+	// whether the class of this overrides computeLine(GeoFeature, double), whose
+	// lines then take the place of the template's
+	private final boolean customLines;
+
+	// whether the class of this overrides getTurnString(double, double), whose
+	// turns then take the place of those of DirectionPlans
+	private final boolean customTurns;
+
+	/**
+	 * Constructs a new TemplateRouteFormatter.
+	 * @requires pattern != null
+	 * @effects Constructs a new TemplateRouteFormatter whose lines are
+	 *          rendered by LineTemplate.compile(pattern).
+	 * @throws IllegalArgumentException if pattern is not a valid template.
+	 */
+	protected TemplateRouteFormatter(String pattern) {
+		this.template = LineTemplate.compile(pattern);
+		this.customLines = overrides(getClass(), "computeLine", GeoFeature.class, double.class);
+		this.customTurns = overrides(getClass(), "getTurnString", double.class, double.class);
+	}
+
+	/**
+	 * Returns whether a subclass overrides a method of TemplateRouteFormatter.
+	 * @requires TemplateRouteFormatter declares a method name(parameterTypes)
+	 * @return true iff a class from type up to, and not including,
+	 *         TemplateRouteFormatter declares the method name(parameterTypes).
+	 */
+	private static boolean overrides(Class<?> type, String name, Class<?>... parameterTypes) {
+		for (Class<?> c = type; c != TemplateRouteFormatter.class; c = c.getSuperclass()) {
+			try {
+				c.getDeclaredMethod(name, parameterTypes);
+				return true;
+			} catch (NoSuchMethodException e) {
+				// not declared here, look further up
+			}
+		}
+		return false;
+	}
+
+
+  	/**
+     * Computes a single line of a multi-line directions String that
+     * represents the instructions for traversing a single geographic
+     * feature.
+     * @requires 0 <= origHeading < 360
+     * @param geoFeature the geographical feature to traverse.
+     * @param origHeading the initial heading.
+     * @return the template of this rendered for geoFeature, or the empty
+     *         String if geoFeature has length 0.
+     **/
+  	public String computeLine(GeoFeature geoFeature, double origHeading) {
+  		var line = new StringBuilder();
+  		try {
+  			renderLine(geoFeature, origHeading, line);
+  		} catch (IOException e) {
+  			throw new AssertionError("StringBuilder does not throw IOException", e);
+  		}
+  		return line.toString();
+  	}
+
+
+  	/**
+     * Computes the same line as computeLine(geoFeature, origHeading) and
+     * appends it to out, without building an intermediate String unless a
+     * subclass overrides computeLine(geoFeature, origHeading).
+     * @requires 0 <= origHeading < 360 && out != null
+     * @param geoFeature the geographical feature to traverse.
+     * @param origHeading the initial heading.
+     * @param out the sink the line is appended to.
+     * @modifies out
+     * @effects appends computeLine(geoFeature, origHeading) to out.
+     * @throws IOException if out throws it.
+     **/
+  	public void computeLine(GeoFeature geoFeature, double origHeading, Appendable out) throws IOException {
+  		if (this.customLines) {
+  			out.append(computeLine(geoFeature, origHeading));
+  		} else {
+  			renderLine(geoFeature, origHeading, out);
+  		}
+  	}
+
+
+  	/**
+     * Renders the template of this for a geographic feature.
+     * @requires out != null
+     * @modifies out
+     * @effects appends to out the line computeLine(geoFeature, origHeading) of
+     *          TemplateRouteFormatter, whether or not a subclass overrides it.
+     * @throws IOException if out throws it.
+     **/
+  	private void renderLine(GeoFeature geoFeature, double origHeading, Appendable out) throws IOException {
+  		if (geoFeature == null)
+		{
+			out.append("error: null argument");
+			return;
+		}else if ((origHeading < 0) || (origHeading >= 360)) {
+			out.append("error: bad arguments");
+			return;
+		}
+
+  		// Handling the case in which the geofeature's length is zero by "typing nothing"
+  		if(geoFeature.getLength() == 0) {
+  			return;
+  		}
+
+  		this.template.render(getTurnString(origHeading, geoFeature.getStartHeading()),
+  				             geoFeature.getName(), geoFeature.getLength(), out);
+  	}
+
+
+  	/**
+     * Computes the same line as computeLine(plan.features[i], plan.incomingHeading[i]),
+     * using the name, length, headings and turn already computed by the plan, and appends it to out.
+     * @requires plan != null && 0 <= i < plan.size && out != null
+     * @param plan the analysis of the route.
+     * @param i the index of the geographic feature in plan.
+     * @param out the sink the line is appended to.
+     * @modifies out
+     * @effects appends computeLine(plan.features[i], plan.incomingHeading[i]) to out.
+     * @throws IOException if out throws it.
+     **/
+  	public void computeLine(DirectionPlan plan, int i, Appendable out) throws IOException {
+  		if (this.customLines) {
+  			out.append(computeLine(plan.getGeoFeature(i), plan.getIncomingHeading(i)));
+  			return;
+  		}
+  		double origHeading = plan.getIncomingHeading(i);
+  		if ((origHeading < 0) || (origHeading >= 360)) {
+			out.append("error: bad arguments");
+			return;
+		}
+
+  		// Handling the case in which the geofeature's length is zero by "typing nothing"
+  		if(plan.getLength(i) == 0) {
+  			return;
+  		}
+
+  		String turn = this.customTurns ? getTurnString(origHeading, plan.getStartHeading(i))
+  				                       : getTurnString(plan.getTurn(i));
+  		this.template.render(turn, plan.getName(i), plan.getLength(i), out);
+  	}
+}
@@ -0,0 +1,75 @@
+package homework1;
+
+/**
+ * A TurnType is the kind of turn needed to go from one compass heading to
+ * another, as described by RouteFormatter.getTurnString().
+ * <p>
+ * Let the angle from the original heading to the new heading be a. The
+ * turn is classified as:
+ * <pre>
+ * CONTINUE             if a < 10
+ * SLIGHT_RIGHT         if 10 <= a < 60
+ * RIGHT                if 60 <= a < 120
+ * SHARP_RIGHT          if 120 <= a < 179
+ * U_TURN               if 179 <= a
+ * </pre>
+ * and likewise for left turns. Each TurnType carries its English phrase,
+ * which is a constant, so classifying a turn and printing it allocates
+ * nothing.
+ */
+public enum TurnType {
+
+	CONTINUE("Continue"),
+	SLIGHT_RIGHT("Turn slight right"),
+	RIGHT("Turn right"),
+	SHARP_RIGHT("Turn sharp right"),
+	SLIGHT_LEFT("Turn slight left"),
+	LEFT("Turn left"),
+	SHARP_LEFT("Turn sharp left"),
+	U_TURN("U-turn");
+
+	private final String phrase;
+
+	/**
+	 * Constructs a new TurnType.
+	 * @requires phrase != null
+	 * @effects Constructs a new TurnType described by phrase.
+	 */
+	TurnType(String phrase) {
+		this.phrase = phrase;
+	}
+
+	/**
+	 * Returns the English directions for this turn.
+	 * @return the English directions for this turn, e.g. "Turn slight right".
+	 */
+	public String getPhrase() {
+		return this.phrase;
+	}
+
+	/**
+	 * Classifies the turn between two headings.
+	 * @requires 0 <= origHeading < 360 &&
+	 *           0 <= newHeading < 360
+	 * @param origHeading the start heading.
+	 * @param newHeading the desired new heading.
+	 * @return the kind of turn needed to go from origHeading to newHeading,
+	 *         as described in the class documentation.
+	 */
+	public static TurnType classify(double origHeading, double newHeading) {
+		double angle = (newHeading - origHeading + 360) % 360;
+		if (angle < 180) {
+			if (angle < 10)  return CONTINUE;
+			if (angle < 60)  return SLIGHT_RIGHT;
+			if (angle < 120) return RIGHT;
+			if (angle < 179) return SHARP_RIGHT;
+			return U_TURN;
+		}
+		angle = 360 - angle;
+		if (angle < 10)  return CONTINUE;
+		if (angle < 60)  return SLIGHT_LEFT;
+		if (angle < 120) return LEFT;
+		if (angle < 179) return SHARP_LEFT;
+		return U_TURN;
+	}
+}
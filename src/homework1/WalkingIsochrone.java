@@ -0,0 +1,329 @@
+package homework1;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A WalkingIsochrone is the part of a road network that can be reached on
+ * foot from a point within each of a few time budgets, walking at
+ * WalkingRouteFormatter.MINUTES_PER_KILOMETER. WalkingIsochrones are immutable.
+ * <p>
+ * The walk starts at the node of the graph nearest to the point. For each
+ * budget, the isochrone holds the segments that can be reached, each with
+ * the fractions of it covered from either end, and the convex polygon
+ * around all the reachable positions.
+ * <p>
+ * A single Dijkstra search serves all the budgets: it settles nodes in
+ * order of distance and stops as soon as the next node is beyond the
+ * largest budget, so the nodes within each budget are a prefix of the ones
+ * it settled. The search runs in a SearchSpace borrowed from the graph,
+ * so computing an isochrone allocates no arrays as large as the graph.
+ * <p>
+ * <b>The following fields are used in the specification:</b>
+ * <pre>
+ *   origin : GeoPoint                 // the node the walk starts at
+ *   budgets : sequence of double      // the time budgets, in minutes
+ * </pre>
+ */
+public class WalkingIsochrone {
+
+	/**
+	 * A CoveredSegment is a segment that can be reached within a budget, and
+	 * how much of it. CoveredSegments are immutable.
+	 */
+	public static final class CoveredSegment {
+
+		private final GeoSegment segment;
+		private final double fromP1;
+		private final double fromP2;
+
+		/**
+		 * Constructs a new CoveredSegment.
+		 * @requires segment != null && 0 <= fromP1, fromP2 <= 1
+		 * @effects Constructs a new CoveredSegment of segment, covered for fromP1 of
+		 *          its length from p1 and fromP2 of its length from p2.
+		 */
+		CoveredSegment(GeoSegment segment, double fromP1, double fromP2) {
+			this.segment = segment;
+			this.fromP1 = fromP1;
+			this.fromP2 = fromP2;
+		}
+
+		/**
+		 * Returns the segment.
+		 * @return the segment covered, as it is in the graph.
+		 */
+		public GeoSegment getSegment() {
+			return this.segment;
+		}
+
+		/**
+		 * Returns how much of the segment is covered from p1.
+		 * @return the fraction of the length of the segment, from 0 to 1, that can be
+		 *         walked starting at p1.
+		 */
+		public double getFromP1() {
+			return this.fromP1;
+		}
+
+		/**
+		 * Returns how much of the segment is covered from p2.
+		 * @return the fraction of the length of the segment, from 0 to 1, that can be
+		 *         walked starting at p2.
+		 */
+		public double getFromP2() {
+			return this.fromP2;
+		}
+
+		/**
+		 * Returns how much of the segment is covered.
+		 * @return the fraction of the length of the segment, from 0 to 1, that can be
+		 *         reached from either end.
+		 */
+		public double getFraction() {
+			return Math.min(1, this.fromP1 + this.fromP2);
+		}
+	}
+
+
+	private final GeoPoint origin;
+	private final double[] budgets;
+	private final List<List<CoveredSegment>> segments;
+	private final List<List<GeoPoint>> areas;
+
+	/*
+	 * Abstraction function:
+	 *     origin = this.origin, budgets = this.budgets
+	 *     the segments reachable within budgets[b] are segments.get(b), and the
+	 *     polygon around them is areas.get(b)
+	 *
+	 * Representation invariant:
+	 *     budgets != null && segments.size() == areas.size() == budgets.length &&
+	 *     foreach b => budgets[b] >= 0
+	 */
+
+	/**
+	 * Checks if this's status is in line with the representation invariant.
+	 * If this is not the case then the running of the program will stop since the checking operation is done
+	 * using the "assert" function.
+	 * @effect if assert is enabled, program stops running in case the current status of this
+	 * 		   does not fulfill the representation invariant
+	 **/
+	private void checkRep() {
+		assert(this.segments.size() == this.budgets.length);
+		assert(this.areas.size() == this.budgets.length);
+		for (double budget : this.budgets) {
+			assert(budget >= 0);
+		}
+	}
+
+	/**
+	 * Constructs a new WalkingIsochrone.
+	 * @requires graph != null && graph.getNodeCount() > 0 && center != null &&
+	 *           budgetMinutes != null && foreach b => budgetMinutes[b] >= 0
+	 * @effects Constructs a new WalkingIsochrone of graph, starting at the node nearest
+	 *          to center, for the budgets budgetMinutes.
+	 */
+	public WalkingIsochrone(RoadGraph graph, GeoPoint center, double... budgetMinutes) {
+		this.budgets = budgetMinutes.clone();
+		int source = graph.nearestNode(center);
+		this.origin = graph.getNode(source);
+		double limit = 0;
+		for (double budget : this.budgets) {
+			limit = Math.max(limit, budget);
+		}
+
+		SearchSpace space = graph.searchSpaces().borrow();
+		try {
+			IntList settled = new IntList();
+			graph.searchWithin(source, limit / WalkingRouteFormatter.MINUTES_PER_KILOMETER, space, settled);
+
+			this.segments = new ArrayList<List<CoveredSegment>>(this.budgets.length);
+			this.areas = new ArrayList<List<GeoPoint>>(this.budgets.length);
+			PointBuffer points = graph.nodes();
+			IntList latitudes = new IntList();
+			IntList longitudes = new IntList();
+			for (double budget : this.budgets) {
+				double reach = budget / WalkingRouteFormatter.MINUTES_PER_KILOMETER;
+				List<CoveredSegment> covered = new ArrayList<CoveredSegment>();
+				latitudes.clear();
+				longitudes.clear();
+				for (int k = 0; k < settled.size() && space.distance(settled.get(k)) <= reach; k++) {
+					int v = settled.get(k);
+					double vLeft = reach - space.distance(v);
+					latitudes.add(points.getLatitude(v));
+					longitudes.add(points.getLongitude(v));
+					for (int e = graph.edgeBegin(v), end = graph.edgeBegin(v + 1); e < end; e++) {
+						int w = graph.edgeTarget(e);
+						boolean wWithin = space.isSettled(w) && space.distance(w) <= reach;
+						if (wWithin && w < v) {
+							// covered when w was
+							continue;
+						}
+						double length = graph.edgeLength(e);
+						double vCovered = Math.min(1, vLeft / length);
+						double wCovered = wWithin ? Math.min(1, (reach - space.distance(w)) / length) : 0;
+						if (vCovered + wCovered < 1) {
+							// the walks along the segment end short of each other
+							addBetween(points, v, w, vCovered, latitudes, longitudes);
+							if (wWithin) {
+								addBetween(points, w, v, wCovered, latitudes, longitudes);
+							}
+						}
+						if (vCovered > 0 || wCovered > 0) {
+							boolean reversed = graph.isReversed(e);
+							covered.add(new CoveredSegment(graph.segmentOfEdge(e),
+									reversed ? wCovered : vCovered, reversed ? vCovered : wCovered));
+						}
+					}
+				}
+				this.segments.add(Collections.unmodifiableList(covered));
+				this.areas.add(Collections.unmodifiableList(convexHull(latitudes, longitudes)));
+			}
+		} finally {
+			graph.searchSpaces().release(space);
+		}
+		checkRep();
+	}
+
+	/**
+	 * Adds a point part of the way between two nodes.
+	 * @requires 0 <= from, to < points.size && 0 <= fraction <= 1
+	 * @modifies latitudes, longitudes
+	 * @effects appends to latitudes and longitudes the point fraction of the way from
+	 *          points[from] to points[to].
+	 */
+	private static void addBetween(PointBuffer points, int from, int to, double fraction,
+								   IntList latitudes, IntList longitudes) {
+		int latitude = points.getLatitude(from);
+		int longitude = points.getLongitude(from);
+		latitudes.add(latitude + (int) Math.round(fraction * (points.getLatitude(to) - latitude)));
+		longitudes.add(longitude + (int) Math.round(fraction * (points.getLongitude(to) - longitude)));
+	}
+
+	/**
+	 * Returns the convex hull of a set of points.
+	 * <p>
+	 * The hull is found by Andrew's monotone chain: the distinct points, packed
+	 * into longs, are sorted by longitude and then latitude, and the lower and
+	 * upper chains are built by dropping every point that makes a clockwise
+	 * turn, in exact long arithmetic.
+	 * @requires latitudes.size() == longitudes.size()
+	 * @return the vertices of the convex hull of the points (latitudes[i], longitudes[i]),
+	 *         counterclockwise from the one with the smallest longitude, with no three on a
+	 *         line; a single point if all the points are equal, and no points if there are none.
+	 */
+	static List<GeoPoint> convexHull(IntList latitudes, IntList longitudes) {
+		int count = latitudes.size();
+		long[] packed = new long[count];
+		for (int i = 0; i < count; i++) {
+			packed[i] = ((long) longitudes.get(i) << 32) | (latitudes.get(i) - GeoPoint.MIN_LATITUDE);
+		}
+		Arrays.sort(packed);
+		int distinct = 0;
+		for (int i = 0; i < count; i++) {
+			if (distinct == 0 || packed[i] != packed[distinct - 1]) {
+				packed[distinct++] = packed[i];
+			}
+		}
+		count = distinct;
+		long[] hull = new long[2 * count];
+		int size = 0;
+		for (int i = 0; i < count; i++) {
+			while (size >= 2 && cross(hull[size - 2], hull[size - 1], packed[i]) <= 0) {
+				size--;
+			}
+			hull[size++] = packed[i];
+		}
+		for (int i = count - 2, lower = size + 1; i >= 0; i--) {
+			while (size >= lower && cross(hull[size - 2], hull[size - 1], packed[i]) <= 0) {
+				size--;
+			}
+			hull[size++] = packed[i];
+		}
+		// the last point closes the polygon, repeating the first
+		size = Math.max(1, size - 1);
+		List<GeoPoint> polygon = new ArrayList<GeoPoint>(size);
+		for (int i = 0; i < Math.min(size, count); i++) {
+			polygon.add(GeoPoint.of(latitudeOf(hull[i]), longitudeOf(hull[i])));
+		}
+		return polygon;
+	}
+
+	/**
+	 * Returns the turn three points make.
+	 * @return a positive number if the points packed in a, b and c, in this order, turn
+	 *         counterclockwise, a negative one if they turn clockwise, and 0 if they are on
+	 *         a line.
+	 */
+	private static long cross(long a, long b, long c) {
+		long x1 = longitudeOf(b) - longitudeOf(a), y1 = latitudeOf(b) - latitudeOf(a);
+		long x2 = longitudeOf(c) - longitudeOf(a), y2 = latitudeOf(c) - latitudeOf(a);
+		return x1 * y2 - y1 * x2;
+	}
+
+	/**
+	 * Returns the latitude of a packed point.
+	 * @return the latitude of the point packed in packed.
+	 */
+	private static int latitudeOf(long packed) {
+		return (int) (packed & 0xffffffffL) + GeoPoint.MIN_LATITUDE;
+	}
+
+	/**
+	 * Returns the longitude of a packed point.
+	 * @return the longitude of the point packed in packed.
+	 */
+	private static int longitudeOf(long packed) {
+		return (int) (packed >> 32);
+	}
+
+	/**
+	 * Returns the point the walk starts at.
+	 * @return origin
+	 */
+	public GeoPoint getOrigin() {
+		return this.origin;
+	}
+
+	/**
+	 * Returns the number of budgets of this.
+	 * @return |budgets|
+	 */
+	public int getBudgetCount() {
+		return this.budgets.length;
+	}
+
+	/**
+	 * Returns a budget.
+	 * @requires 0 <= b < getBudgetCount()
+	 * @return budgets[b], in minutes.
+	 */
+	public double getBudget(int b) {
+		return this.budgets[b];
+	}
+
+	/**
+	 * Returns the segments reachable within a budget.
+	 * @requires 0 <= b < getBudgetCount()
+	 * @return an unmodifiable list of the segments of the graph of which some positive
+	 *         length can be walked to from origin within budgets[b] minutes, each once,
+	 *         with the fractions of it that can.
+	 */
+	public List<CoveredSegment> getSegments(int b) {
+		return this.segments.get(b);
+	}
+
+	/**
+	 * Returns the area reachable within a budget.
+	 * @requires 0 <= b < getBudgetCount()
+	 * @return an unmodifiable list of the vertices, counterclockwise, of the convex polygon
+	 *         around all the positions on the graph that can be walked to from origin within
+	 *         budgets[b] minutes. It is the single point origin if no others can.
+	 */
+	public List<GeoPoint> getArea(int b) {
+		return this.areas.get(b);
+	}
+}
@@ -1,7 +1,5 @@
 package homework1;
 
-import java.text.DecimalFormat;
-
 /**
  * A WalkingDirections class knows how to create a textual description of
  * directions from one location to another suitable for a pedestrian.
@@ -24,56 +22,25 @@ import java.text.DecimalFormat;
  * be reported to the nearest minute. Each line should be terminated by a
  * newline and should include no extra spaces other than those shown above.
  **/
-public class WalkingRouteFormatter extends RouteFormatter {
+public class WalkingRouteFormatter extends TemplateRouteFormatter {
+
+	/**
+	 * Walking speed assumed by the directions, in minutes per kilometer.
+	 */
+	public static final int MINUTES_PER_KILOMETER = 20;
+
+	/**
+	 * The template each line of these directions is rendered by.
+	 * @see homework1.LineTemplate
+	 */
+	public static final String TEMPLATE = "{turn} onto {name} and walk for {minutes} minutes.\n";
+
+	/**
+	 * Constructs a new WalkingRouteFormatter.
+	 * @effects Constructs a new WalkingRouteFormatter whose lines are rendered by TEMPLATE.
+	 */
+	public WalkingRouteFormatter() {
+		super(TEMPLATE);
+	}
 
-  	/**
-     * Computes a single line of a multi-line directions String that
-     * represents the instructions for walking along a single geographic
-     * feature.
-     * @requires 0 <= origHeading < 360
-     * @param geoFeature the geographical feature to traverse.
-     * @param origHeading the initial heading.
-     * @return A newline-terminated <tt>String</tt> that gives directions
-     * 		   on how to walk along this geographical feature.<br>
-     * Calling <tt>computeLine</tt> with a GeoFeature instance and an
-     * initial heading should produce a newline-terminated String in the
-     * following form:
-     * <p>
-     * <tt>
-     * Turn sharp left onto Hanita and walk for 27 minutes.<br>
-     * </tt>
-     * <p>
-     * In the output above, "Hanita" represents the name of the
-     * geographic feature, and "27 minutes" is the length of time that it
-     * would take to walk along the geographic feature, assuming a walking
-     * speed of 20 minutes per kilometer. The time in minutes should be
-     * reported to the nearest minute. Each line should be terminated by a
-     * newline and should include no extra spaces other than those shown
-     * above.
-     **/
-  	public String computeLine(GeoFeature geoFeature, double origHeading) {
-  		
-		// Implementation hint:
-		// You may find the class java.text.DecimalFormat useful when
-		// implementing this method. More info can be found at:
-		// http://docs.oracle.com/javase/tutorial/java/data/numberformat.html
-		// and at:
-		// http://docs.oracle.com/javase/8/docs/api/java/text/DecimalFormat.html
-  		
-  		if (geoFeature == null)
-		{
-			return "error: null argument";
-		}else if ((origHeading < 0) || (origHeading >= 360)) {
-			return "error: bad arguments";
-		}
-  		
-  		// Handling the case in which the geofeature's length is zero by "typing nothing"
-  		if(geoFeature.getLength() == 0) { 
-  			return "";
-  		}
-  		
-  		double timeToWalk = 20 * geoFeature.getLength();
-		return getTurnString(origHeading, geoFeature.getStartHeading()) + " onto " + geoFeature.getName()
-				                                 + " and walk for " + String.valueOf((int) Math.round(timeToWalk)) + " minutes.\n";
-  	}
 }
@@ -1,5 +1,8 @@
 package homework1;
 
+import java.io.IOException;
+import java.io.StringWriter;
+
 public class WalkingRouteFormatterTest {
 	
 	private WalkingRouteFormatter mDirections;
@@ -30,8 +33,95 @@ public class WalkingRouteFormatterTest {
 	}
   	
   	
-	public static void main(String[] args) {
+  	public void testAppendable() throws IOException {
+  		StringWriter directions = new StringWriter();
+  		mDirections.computeDirections(mShortRoute, 0, directions);
+		if (directions.toString().equals(mDirections.computeDirections(mShortRoute, 0)))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testPlan() {
+  		DirectionPlan plan = new DirectionPlan(mShortRoute, 0);
+  		boolean ok = mDirections.computeDirections(plan).equals(mDirections.computeDirections(mShortRoute, 0));
+  		
+  		// another formatter renders the same plan
+  		RouteFormatter other = new DrivingRouteFormatter();
+  		ok = ok && other.computeDirections(plan).equals(other.computeDirections(mShortRoute, 0));
+		if (ok)
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testTurnString() {
+  		// a subclass's turns are used by every line, with and without a plan
+  		RouteFormatter compass = new WalkingRouteFormatter() {
+  			protected String getTurnString(double origHeading, double newHeading) {
+  				return "Head " + (newHeading < 180 ? "east" : "west");
+  			}
+  		};
+		String directions =
+			"Head east onto Trumpeldor Avenue and walk for 15 minutes.\n" +
+    		"Head west onto Hagalil and walk for 27 minutes.\n";
+		if (compass.computeDirections(mShortRoute, 0).equals(directions) &&
+				compass.computeDirections(new DirectionPlan(mShortRoute, 0)).equals(directions))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testTurnType() {
+  		// a subclass's description of each kind of turn is used by every line, with and without a plan
+  		RouteFormatter terse = new WalkingRouteFormatter() {
+  			protected String getTurnString(TurnType turn) {
+  				return turn.name();
+  			}
+  		};
+		String directions =
+			"SLIGHT_RIGHT onto Trumpeldor Avenue and walk for 15 minutes.\n" +
+    		"LEFT onto Hagalil and walk for 27 minutes.\n";
+		if (terse.computeDirections(mShortRoute, 0).equals(directions) &&
+				terse.computeDirections(new DirectionPlan(mShortRoute, 0)).equals(directions))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+  	public void testComputeLine() throws IOException {
+  		// a subclass's lines are used by every way of computing directions
+  		RouteFormatter loud = new WalkingRouteFormatter() {
+  			public String computeLine(GeoFeature geoFeature, double origHeading) {
+  				return super.computeLine(geoFeature, origHeading).toUpperCase();
+  			}
+  		};
+		String directions =
+			"TURN SLIGHT RIGHT ONTO TRUMPELDOR AVENUE AND WALK FOR 15 MINUTES.\n" +
+    		"TURN LEFT ONTO HAGALIL AND WALK FOR 27 MINUTES.\n";
+		StringWriter appended = new StringWriter();
+		loud.computeDirections(mShortRoute, 0, appended);
+		if (loud.computeDirections(mShortRoute, 0).equals(directions) &&
+				appended.toString().equals(directions) &&
+				loud.computeDirectionsInParallel(mShortRoute, 0).equals(directions) &&
+				loud.computeDirections(new DirectionPlan(mShortRoute, 0)).equals(directions))
+			System.out.println("Test passed correctly");
+		else
+			System.out.println("Test not passed correctly");
+  	}
+  	
+  	
+	public static void main(String[] args) throws IOException {
 		WalkingRouteFormatterTest directionsTest = new WalkingRouteFormatterTest();
 		directionsTest.test();
+		directionsTest.testAppendable();
+		directionsTest.testPlan();
+		directionsTest.testTurnString();
+		directionsTest.testTurnType();
+		directionsTest.testComputeLine();
 	}
 }
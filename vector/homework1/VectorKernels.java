@@ -0,0 +1,73 @@
+package homework1;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * VectorKernels computes the distance loops of GeoKernels with the
+ * incubating Vector API, a whole vector of points at a time.
+ * <p>
+ * The coordinate differences are taken as ints, in half as wide a vector
+ * as the doubles they are converted to, so both have the same number of
+ * lanes. Every lane goes through the same operations, in the same order,
+ * as the scalar loops of GeoKernels: an int subtraction, a conversion,
+ * a multiplication by the scale factor, and sqrt(dx * dx + dy * dy) with
+ * no fused multiply-add. The results are therefore equal to the scalar
+ * ones bit for bit. The points left over after the last whole vector are
+ * handled by the scalar loops.
+ * <p>
+ * This class lives in its own source set, compiled with
+ * --add-modules jdk.incubator.vector, and is only loaded by GeoKernels
+ * when that module is present at run time.
+ * <p>
+ * Package-private; this class is an implementation detail of GeoKernels.
+ */
+final class VectorKernels implements DistanceKernels {
+
+	private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+	private static final VectorSpecies<Integer> INTS =
+			VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+	public void legDistances(int[] latitudes, int[] longitudes, int count, double[] out) {
+		int legs = Math.max(0, count - 1);
+		int bound = DOUBLES.loopBound(legs);
+		int i = 0;
+		for (; i < bound; i += DOUBLES.length()) {
+			IntVector dLatitude = IntVector.fromArray(INTS, latitudes, i + 1)
+					.sub(IntVector.fromArray(INTS, latitudes, i));
+			IntVector dLongitude = IntVector.fromArray(INTS, longitudes, i + 1)
+					.sub(IntVector.fromArray(INTS, longitudes, i));
+			distances(dLatitude, dLongitude).intoArray(out, i);
+		}
+		GeoKernels.SCALAR.legDistances(latitudes, longitudes, i, count, out);
+	}
+
+	public void distancesFrom(int latitude, int longitude,
+			                  int[] latitudes, int[] longitudes, int count, double[] out) {
+		int bound = DOUBLES.loopBound(count);
+		int i = 0;
+		for (; i < bound; i += DOUBLES.length()) {
+			IntVector dLatitude = IntVector.fromArray(INTS, latitudes, i).sub(latitude);
+			IntVector dLongitude = IntVector.fromArray(INTS, longitudes, i).sub(longitude);
+			distances(dLatitude, dLongitude).intoArray(out, i);
+		}
+		GeoKernels.SCALAR.distancesFrom(latitude, longitude, latitudes, longitudes, i, count, out);
+	}
+
+	/**
+	 * Computes the lengths of a vector of coordinate differences.
+	 * @requires dLatitude and dLongitude have DOUBLES.length() lanes
+	 * @return the vector whose lanes are the lengths in kilometers of the lanes of
+	 *         dLatitude and dLongitude, in microdegrees.
+	 */
+	private static DoubleVector distances(IntVector dLatitude, IntVector dLongitude) {
+		DoubleVector dy = ((DoubleVector) dLatitude.convertShape(VectorOperators.I2D, DOUBLES, 0))
+				.mul(GeoKernels.KM_PER_MICRODEGREE_LATITUDE);
+		DoubleVector dx = ((DoubleVector) dLongitude.convertShape(VectorOperators.I2D, DOUBLES, 0))
+				.mul(GeoKernels.KM_PER_MICRODEGREE_LONGITUDE);
+		return dx.mul(dx).add(dy.mul(dy)).sqrt();
+	}
+}